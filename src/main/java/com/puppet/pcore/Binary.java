@@ -2,8 +2,11 @@ package com.puppet.pcore;
 
 import com.puppet.pcore.impl.Helpers;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CharsetDecoder;
@@ -14,90 +17,198 @@ import java.util.List;
 
 /**
  * Holds a sequence of bytes and provides conversion methods to convert to and from base64 encoding.
+ * <p>
+ * The bytes are a slice of a byte array. The public constructors always copy their input, while
+ * {@link #wrap(byte[], int, int)} and {@link #slice(int, int)} create views that share the array with
+ * their source. Such views must not be modified through the shared array. Use {@link #copy()} to obtain
+ * an instance that holds only its own bytes.
+ * </p>
  */
 public class Binary implements Comparable<Binary> {
+	private static final byte[] BASE64_VALUES = new byte[128];
+
+	static {
+		Arrays.fill(BASE64_VALUES, (byte)-1);
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		for(int idx = 0; idx < alphabet.length(); ++idx)
+			BASE64_VALUES[alphabet.charAt(idx)] = (byte)idx;
+	}
+
 	private final byte[] buffer;
+	private final int offset;
+	private final int length;
+
+	// true when no one else holds a reference to the buffer
+	private final boolean owned;
 
 	public static int compare(byte[] left, byte[] right) {
-		int ll = left.length;
-		int rl = right.length;
-		int max = ll > rl ? rl : ll;
-		for (int i = 0; i < max; ++i) {
-			int a = (left[i] & 0xff);
-			int b = (right[i] & 0xff);
-			if (a != b)
-				return a > b ? 1 : -1;
-		}
-		return Integer.compare(ll, rl);
+		return compare(left, 0, left.length, right, 0, right.length);
 	}
 
 	public Binary(byte[] buffer) {
-		this.buffer = buffer.clone();
+		this(buffer.clone(), 0, buffer.length, true);
 	}
 
 	public Binary(byte[] buffer, int off, int len) {
-		this.buffer = Arrays.copyOfRange(buffer, off, off + len);
+		this(Arrays.copyOfRange(buffer, off, off + len), 0, len, true);
 	}
 
 	public Binary(ByteBuffer buffer, int len) {
-		this.buffer = new byte[len];
+		this(new byte[len], 0, len, true);
 		buffer.get(this.buffer, 0, len);
 	}
 
+	private Binary(byte[] buffer, int offset, int length, boolean owned) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+		this.owned = owned;
+	}
+
+	/**
+	 * Creates a binary that is a view of the given bytes. The bytes are not copied.
+	 *
+	 * @param buffer the bytes to wrap
+	 * @return the created binary
+	 */
+	public static Binary wrap(byte[] buffer) {
+		return new Binary(buffer, 0, buffer.length, false);
+	}
+
+	/**
+	 * Creates a binary that is a view of <code>len</code> bytes of the given array, starting at <code>off</code>.
+	 * The bytes are not copied.
+	 *
+	 * @param buffer the array to wrap
+	 * @param off offset of the first byte
+	 * @param len number of bytes
+	 * @return the created binary
+	 */
+	public static Binary wrap(byte[] buffer, int off, int len) {
+		checkRange(buffer.length, off, len);
+		return new Binary(buffer, off, len, false);
+	}
+
+	/**
+	 * Creates a binary from the remaining bytes of the given buffer without changing its position. The
+	 * binary is a view of the backing array when the buffer has an accessible array. The bytes are copied
+	 * otherwise, i.e. when the buffer is direct or read-only.
+	 *
+	 * @param buffer the buffer to wrap
+	 * @return the created binary
+	 */
+	public static Binary wrap(ByteBuffer buffer) {
+		if(buffer.hasArray())
+			return new Binary(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), false);
+		return new Binary(buffer.duplicate(), buffer.remaining());
+	}
+
 	public static Binary fromUTF8(String string) {
-		return new Binary(string.getBytes(StandardCharsets.UTF_8));
+		return wrap(string.getBytes(StandardCharsets.UTF_8));
 	}
 
 	public static Binary fromBase64(String string) {
-		return new Binary(Base64.getMimeDecoder().decode(string));
+		return wrap(Base64.getMimeDecoder().decode(string));
 	}
 
+	/**
+	 * Decodes a padded base64 string without line breaks. The string is decoded in one pass directly into
+	 * a byte array of the final size.
+	 *
+	 * @param string the string to decode
+	 * @return the decoded binary
+	 * @throws IllegalArgumentException if the string is not valid base64
+	 */
 	public static Binary fromBase64Strict(String string) {
-		byte[] bytes = string.getBytes(StandardCharsets.ISO_8859_1);
-		if(bytes.length % 4 != 0)
-			throw new IllegalArgumentException("Input string length must be dividable with 4");
-		return new Binary(Base64.getDecoder().decode(bytes));
+		StrictBase64Decoder decoder = new StrictBase64Decoder(string.length());
+		decoder.write(string, 0, string.length());
+		return decoder.toBinary();
 	}
 
 	public static Binary fromBase64URLSafe(String string) {
-		return new Binary(Base64.getUrlDecoder().decode(string));
+		return wrap(Base64.getUrlDecoder().decode(string));
+	}
+
+	/**
+	 * @return a stream that reads the bytes of this binary without copying them
+	 */
+	public InputStream asInputStream() {
+		return new ByteArrayInputStream(buffer, offset, length);
 	}
 
 	public List<Byte> asList() {
-		int idx = buffer.length;
+		int idx = length;
 		Byte[] result = new Byte[idx];
 		while(--idx >= 0)
-			result[idx] = buffer[idx];
+			result[idx] = buffer[offset + idx];
 		return Helpers.asList(result);
 	}
 
 	@Override
 	public int compareTo(Binary o) {
-		return compare(buffer, o.buffer);
+		return compare(buffer, offset, length, o.buffer, o.offset, o.length);
+	}
+
+	/**
+	 * Returns a binary that holds its own copy of the bytes of this binary, or this binary when it already does.
+	 * Views created by <code>wrap</code> or <code>slice</code> are always copied.
+	 *
+	 * @return a binary that does not share its bytes with anyone else
+	 */
+	public Binary copy() {
+		return owned && offset == 0 && length == buffer.length ? this : new Binary(buffer, offset, length);
 	}
 
 	public boolean equals(Object o) {
-		return o instanceof Binary && Arrays.equals(buffer, ((Binary)o).buffer);
+		if(o == this)
+			return true;
+		if(!(o instanceof Binary))
+			return false;
+		Binary b = (Binary)o;
+		return length == b.length && compare(buffer, offset, length, b.buffer, b.offset, b.length) == 0;
 	}
 
 	public int hashCode() {
-		return Arrays.hashCode(buffer);
+		int result = 1;
+		for(int idx = offset, top = offset + length; idx < top; ++idx)
+			result = 31 * result + buffer[idx];
+		return result;
+	}
+
+	/**
+	 * @return the number of bytes in this binary
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Creates a binary that is a view of <code>len</code> bytes of this binary, starting at <code>off</code>.
+	 * The bytes are not copied.
+	 *
+	 * @param off offset of the first byte, relative to the start of this binary
+	 * @param len number of bytes
+	 * @return the created binary
+	 */
+	public Binary slice(int off, int len) {
+		checkRange(length, off, len);
+		return new Binary(buffer, offset + off, len, false);
 	}
 
 	public byte[] toByteArray() {
-		return buffer.clone();
+		return Arrays.copyOfRange(buffer, offset, offset + length);
 	}
 
 	public String toMimeString() {
-		return Base64.getMimeEncoder().encodeToString(buffer) + '\n';
+		return encode(Base64.getMimeEncoder()) + '\n';
 	}
 
 	public String toString() {
-		return Base64.getEncoder().encodeToString(buffer);
+		return encode(Base64.getEncoder());
 	}
 
 	public String toURLSafeString() {
-		return Base64.getUrlEncoder().encodeToString(buffer);
+		return encode(Base64.getUrlEncoder());
 	}
 
 	public String toUTF8String() {
@@ -110,14 +221,135 @@ public class Binary implements Comparable<Binary> {
 	}
 
 	public void writeTo(ByteBuffer out, int off, int len) {
-		out.put(buffer, off, len);
+		checkRange(length, off, len);
+		out.put(buffer, offset + off, len);
+	}
+
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(buffer, offset, length);
 	}
 
 	public void writeTo(OutputStream out, int off, int len) throws IOException {
-		out.write(buffer, off, len);
+		checkRange(length, off, len);
+		out.write(buffer, offset + off, len);
 	}
 
 	public ByteBuffer getBuffer() {
-		return ByteBuffer.wrap(buffer).asReadOnlyBuffer();
+		return ByteBuffer.wrap(buffer, offset, length).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Decodes base64 text of a known length that is written in one or more chunks, e.g. by a streaming
+	 * parser. The text must follow the same rules as {@link Binary#fromBase64Strict(String)}.
+	 */
+	public static final class StrictBase64Decoder extends Writer {
+		private final int length;
+		private final byte[] bytes;
+		private int pos;
+		private int idx;
+		private int bits;
+		private int padding;
+
+		/**
+		 * @param length the length of the text that will be written
+		 * @throws IllegalArgumentException if the length is not a multiple of 4
+		 */
+		public StrictBase64Decoder(int length) {
+			if(length % 4 != 0)
+				throw new IllegalArgumentException("Input string length must be dividable with 4");
+			this.length = length;
+			bytes = new byte[length / 4 * 3];
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			for(int top = off + len; off < top; ++off)
+				decode(cbuf[off]);
+		}
+
+		@Override
+		public void write(String str, int off, int len) {
+			for(int top = off + len; off < top; ++off)
+				decode(str.charAt(off));
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		/**
+		 * @return the decoded binary
+		 * @throws IllegalArgumentException if less text than the given length was written
+		 */
+		public Binary toBinary() {
+			if(idx != length)
+				throw new IllegalArgumentException("Input string is shorter than its declared length");
+			if(padding == 1) {
+				bytes[pos++] = (byte)(bits >> 10);
+				bytes[pos++] = (byte)(bits >> 2);
+			} else if(padding == 2)
+				bytes[pos++] = (byte)(bits >> 4);
+			return pos == bytes.length ? wrap(bytes) : wrap(bytes, 0, pos);
+		}
+
+		private void decode(char c) {
+			if(idx >= length)
+				throw new IllegalArgumentException("Input string is longer than its declared length");
+			int at = idx++;
+			if(padding > 0) {
+				// Only a second padding character may follow the first. Report the misplaced first one otherwise
+				if(c != '=')
+					throw illegalCharacter('=');
+				padding = 2;
+				return;
+			}
+			if(c == '=' && at >= length - 2) {
+				padding = 1;
+				return;
+			}
+			bits = bits << 6 | base64Value(c);
+			if((at & 3) == 3) {
+				bytes[pos++] = (byte)(bits >> 16);
+				bytes[pos++] = (byte)(bits >> 8);
+				bytes[pos++] = (byte)bits;
+				bits = 0;
+			}
+		}
+	}
+
+	private static int base64Value(char c) {
+		int value = c < 128 ? BASE64_VALUES[c] : -1;
+		if(value < 0)
+			throw illegalCharacter(c);
+		return value;
+	}
+
+	private static IllegalArgumentException illegalCharacter(char c) {
+		return new IllegalArgumentException("Illegal base64 character " + Integer.toString(c, 16));
+	}
+
+	private static void checkRange(int size, int off, int len) {
+		if(off < 0 || len < 0 || len > size - off)
+			throw new IndexOutOfBoundsException(String.format("offset %d, length %d, size %d", off, len, size));
+	}
+
+	private static int compare(byte[] left, int leftOffset, int ll, byte[] right, int rightOffset, int rl) {
+		int max = ll > rl ? rl : ll;
+		for (int i = 0; i < max; ++i) {
+			int a = (left[leftOffset + i] & 0xff);
+			int b = (right[rightOffset + i] & 0xff);
+			if (a != b)
+				return a > b ? 1 : -1;
+		}
+		return Integer.compare(ll, rl);
+	}
+
+	private String encode(Base64.Encoder encoder) {
+		ByteBuffer encoded = encoder.encode(ByteBuffer.wrap(buffer, offset, length));
+		return new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1);
 	}
 }
@@ -69,4 +69,11 @@ public interface Type {
 	String toDebugString();
 
 	String toExpandedString();
+
+	/**
+	 * Validates the given value against this type. The value is traversed once and all failures are collected.
+	 * @param o the value to validate
+	 * @return the result of the validation
+	 */
+	ValidationResult validate(Object o);
 }
@@ -1,9 +1,42 @@
 package com.puppet.pcore;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.function.Supplier;
+
 public class TypeAssertionException extends PcoreException {
 	private static final long serialVersionUID = -1;
 
+	private transient Supplier<String> messageSupplier;
+	private String message;
+
 	public TypeAssertionException(String message) {
 		super(message);
+		this.message = message;
+	}
+
+	/**
+	 * Creates an exception whose message is produced by the given supplier the first time it is read. Use this
+	 * when the message is expensive to compute and the exception might be caught without being reported.
+	 *
+	 * @param messageSupplier supplier of the message
+	 */
+	public TypeAssertionException(Supplier<String> messageSupplier) {
+		super((String)null);
+		this.messageSupplier = messageSupplier;
+	}
+
+	@Override
+	public synchronized String getMessage() {
+		if(messageSupplier != null) {
+			message = messageSupplier.get();
+			messageSupplier = null;
+		}
+		return message;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		getMessage();
+		out.defaultWriteObject();
 	}
 }
@@ -83,4 +83,13 @@ public interface TypeEvaluator {
 	 * @return the resulting type
 	 */
 	Type resolveType(Expression typeExpression);
+
+	/**
+	 * Resolves the type appointed by a qualified name. Unlike {@link #resolveType(String)}, successful
+	 * resolutions may be cached since a bound type cannot be redefined.
+	 *
+	 * @param qualifiedName the name of the type
+	 * @return the resulting type
+	 */
+	Type resolveTypeByName(String qualifiedName);
 }
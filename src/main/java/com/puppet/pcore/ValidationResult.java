@@ -0,0 +1,49 @@
+package com.puppet.pcore;
+
+import java.util.List;
+
+/**
+ * The result of validating a value against a type using {@link Type#validate(Object)}.
+ */
+public interface ValidationResult {
+	/**
+	 * A single reason why a value failed validation.
+	 */
+	interface Failure {
+		/**
+		 * @return the inferred type of the offending value, the actual size as an Integer type when the failure
+		 * concerns the size of a container, or <code>null</code> when the failure concerns a missing or extraneous key
+		 */
+		Type actual();
+
+		/**
+		 * @return the type that the offending value was expected to have, the expected size as an Integer type when the
+		 * failure concerns the size of a container, or <code>null</code> when the failure concerns a missing or
+		 * extraneous key
+		 */
+		Type expected();
+
+		/**
+		 * @return a human readable description of the failure
+		 */
+		String message();
+
+		/**
+		 * Returns a JSON path such as <code>$['servers'][2]['port']</code> that denotes the offending value. Failures
+		 * that concern a key denote the hash entry for that key. Failures that concern a size denote the container.
+		 *
+		 * @return the JSON path, or <code>null</code> if the path contains keys that cannot be represented in a JSON path
+		 */
+		String path();
+	}
+
+	/**
+	 * @return all failures found during validation, in the order they were found
+	 */
+	List<Failure> failures();
+
+	/**
+	 * @return <code>true</code> if the value is an instance of the type
+	 */
+	boolean isValid();
+}
@@ -15,12 +15,27 @@ public abstract class AbstractArgumentsAccessor implements ArgumentsAccessor {
 	protected final int numberOfGivenArguments;
 	protected final ParameterInfo parameterInfo;
 	protected final ObjectType type;
+	private final boolean trusted;
 
 	protected AbstractArgumentsAccessor(ObjectType type, int numberOfGivenArguments) {
+		this(type, numberOfGivenArguments, false);
+	}
+
+	protected AbstractArgumentsAccessor(ObjectType type, int numberOfGivenArguments, boolean trusted) {
 		this.type = type;
 		this.parameterInfo = getAndAssertParameterInfo(type, numberOfGivenArguments);
-		List<Attribute> attrs = parameterInfo.attributes;
 		this.numberOfGivenArguments = numberOfGivenArguments;
+		this.trusted = trusted;
+	}
+
+	/**
+	 * Trusted arguments are known to be valid, typically because they were produced by a trusted
+	 * serializer. They are never type checked.
+	 *
+	 * @return <code>true</code> if the arguments are trusted
+	 */
+	public boolean isTrusted() {
+		return trusted;
 	}
 
 	@Override
@@ -43,7 +58,8 @@ public abstract class AbstractArgumentsAccessor implements ArgumentsAccessor {
 
 	protected void assertArguments(Object[] arguments) {
 		if(arguments.length == 1 && arguments[0] instanceof Map && type.roundtripWithHash()) {
-			type.assertHashInitializer((Map<?,?>)arguments[0]);
+			if(!trusted)
+				type.assertHashInitializer((Map<?,?>)arguments[0]);
 			return;
 		}
 
@@ -63,7 +79,8 @@ public abstract class AbstractArgumentsAccessor implements ArgumentsAccessor {
 					else if(!(value instanceof Long || value instanceof Double))
 						arguments[idx] = ((Number)value).longValue();
 				}
-				attr.type.assertInstanceOf(arguments[idx], attr::label);
+				if(!trusted)
+					attr.type.assertInstanceOf(arguments[idx], attr::label);
 			} else
 				arguments[idx] = attr.value();
 		}
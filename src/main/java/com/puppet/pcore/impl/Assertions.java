@@ -6,7 +6,6 @@ import com.puppet.pcore.impl.types.IntegerType;
 
 import java.util.function.Supplier;
 
-import static com.puppet.pcore.impl.types.TypeFactory.inferSet;
 import static java.lang.String.format;
 
 public class Assertions {
@@ -55,8 +54,11 @@ public class Assertions {
 	}
 
 	public static Object assertInstance(AnyType expected, Object actual, Supplier<String> identifier) {
-		if(!expected.isInstance(actual))
-			throw new TypeAssertionException(identifier.get() + ' ' + TypeMismatchDescriber.SINGLETON.describeMismatch(expected, inferSet(actual)));
+		if(!expected.isInstance(actual)) {
+			String id = identifier.get();
+			Supplier<String> description = TypeMismatchDescriber.SINGLETON.instanceMismatchDescription(expected, actual);
+			throw new TypeAssertionException(() -> id + ' ' + description.get());
+		}
 		return actual;
 	}
 }
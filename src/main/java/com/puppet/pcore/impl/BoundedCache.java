@@ -0,0 +1,44 @@
+package com.puppet.pcore.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache that is safe for concurrent use and holds at most a given number of entries. All entries are
+ * dropped when a new one is added to a full cache. That keeps the cost of a lookup to a single map access
+ * while a cache that is keyed by input strings cannot grow without bounds.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class BoundedCache<K, V> {
+	private final Map<K,V> entries = new ConcurrentHashMap<>();
+	private final int maxSize;
+
+	/**
+	 * @param maxSize the maximum number of entries
+	 */
+	public BoundedCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @param key the key to look up
+	 * @return the cached value or <code>null</code> when the key is not cached
+	 */
+	public V get(K key) {
+		return entries.get(key);
+	}
+
+	/**
+	 * Adds an entry to the cache. The cache is cleared first when it is full.
+	 *
+	 * @param key the key of the entry
+	 * @param value the value of the entry
+	 */
+	public void put(K key, V value) {
+		if(entries.size() >= maxSize)
+			entries.clear();
+		entries.put(key, value);
+	}
+}
@@ -19,6 +19,9 @@ import static java.util.Collections.singletonList;
 public class ConstructorImpl<T> implements Constructor<T> {
 	private final TupleType signature;
 	private final FactoryFunction<T> initFunction;
+	private final FactoryFunction<T> trustedInitFunction;
+	private final long minArgs;
+	private final long maxArgs;
 
 	@SuppressWarnings("unchecked")
 	public static <T> ConstructorImpl<T> constructor(ObjectType type) {
@@ -48,16 +51,44 @@ public class ConstructorImpl<T> implements Constructor<T> {
 	}
 
 	public static <T> ConstructorImpl<T> constructor(FactoryFunction<T> initFunction, TupleType paramTypes) {
-		return new ConstructorImpl<>(paramTypes, initFunction);
+		return new ConstructorImpl<>(paramTypes, initFunction, initFunction);
+	}
+
+	/**
+	 * Creates a constructor that uses a separate function when the arguments are trusted. The
+	 * <code>trustedInitFunction</code> can then skip validations that the <code>initFunction</code>
+	 * must perform.
+	 */
+	public static <T> ConstructorImpl<T> constructor(FactoryFunction<T> initFunction, FactoryFunction<T> trustedInitFunction, TupleType paramTypes) {
+		return new ConstructorImpl<>(paramTypes, initFunction, trustedInitFunction);
 	}
 
 	public static <T> ConstructorImpl<T> hashConstructor(FactoryFunction<T> initFunction, StructType hashType) {
-		return new HashConstructor<>(hashType, initFunction);
+		return new HashConstructor<>(hashType, initFunction, initFunction);
+	}
+
+	public static <T> ConstructorImpl<T> hashConstructor(FactoryFunction<T> initFunction, FactoryFunction<T> trustedInitFunction, StructType hashType) {
+		return new HashConstructor<>(hashType, initFunction, trustedInitFunction);
 	}
 
-	ConstructorImpl(TupleType signature, FactoryFunction<T> initFunction) {
+	ConstructorImpl(TupleType signature, FactoryFunction<T> initFunction, FactoryFunction<T> trustedInitFunction) {
 		this.signature = signature;
 		this.initFunction = initFunction;
+		this.trustedInitFunction = trustedInitFunction;
+		this.minArgs = signature.givenOrActualSize.min;
+		this.maxArgs = signature.givenOrActualSize.max;
+	}
+
+	/**
+	 * Cheap shape check performed prior to the full signature check. A constructor that
+	 * cannot accept the given number of arguments need not be type checked.
+	 *
+	 * @param args the arguments
+	 * @return <code>false</code> if this constructor cannot possibly accept the arguments
+	 */
+	boolean acceptsShapeOf(List<?> args) {
+		int count = args.size();
+		return count >= minArgs && count <= maxArgs;
 	}
 
 	@Override
@@ -65,6 +96,13 @@ public class ConstructorImpl<T> implements Constructor<T> {
 		return initFunction;
 	}
 
+	/**
+	 * @return the function to use when the arguments are known to be valid
+	 */
+	public FactoryFunction<T> trustedInitFunction() {
+		return trustedInitFunction;
+	}
+
 	@Override
 	public boolean isHashConstructor() {
 		return false;
@@ -77,12 +115,17 @@ public class ConstructorImpl<T> implements Constructor<T> {
 }
 
 class HashConstructor<T> extends ConstructorImpl<T> {
-	HashConstructor(StructType hashType, FactoryFunction<T> initFunction) {
-		super(tupleType(singletonList(hashType)), initFunction);
+	HashConstructor(StructType hashType, FactoryFunction<T> initFunction, FactoryFunction<T> trustedInitFunction) {
+		super(tupleType(singletonList(hashType)), initFunction, trustedInitFunction);
 	}
 
 	@Override
 	public boolean isHashConstructor() {
 		return true;
 	}
+
+	@Override
+	boolean acceptsShapeOf(List<?> args) {
+		return args.size() == 1 && args.get(0) instanceof Map;
+	}
 }
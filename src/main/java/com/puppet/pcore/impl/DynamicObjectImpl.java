@@ -27,13 +27,27 @@ public class DynamicObjectImpl implements DynamicObject {
 	}
 
 	public DynamicObjectImpl(ObjectType ptype, Object... args) {
-		ObjectType baseType = ptype;
+		this(ptype, new GivenArgumentsAccessor(ptype, args));
+	}
+
+	private DynamicObjectImpl(ObjectType baseType, GivenArgumentsAccessor argumentsAccessor) {
 		this.ptype = baseType;
-		this.attributes = new GivenArgumentsAccessor(ptype, args).getAll();
+		this.attributes = argumentsAccessor.getAll();
 		if(baseType.isParameterized())
 			this.ptype = new ObjectTypeExtension(baseType, this);
 	}
 
+	/**
+	 * Creates an instance from arguments that are known to be valid. No type checking takes place.
+	 *
+	 * @param ptype the type of the instance
+	 * @param args the attribute values
+	 * @return the created instance
+	 */
+	public static DynamicObjectImpl trusted(ObjectType ptype, Object... args) {
+		return new DynamicObjectImpl(ptype, GivenArgumentsAccessor.trusted(ptype, args));
+	}
+
 	@Override
 	public Type _pcoreType() {
 		return ptype;
@@ -6,16 +6,20 @@ import com.puppet.pcore.serialization.ArgumentsAccessor;
 import com.puppet.pcore.serialization.FactoryDispatcher;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static com.puppet.pcore.impl.Helpers.asList;
 import static com.puppet.pcore.impl.Helpers.map;
-import static com.puppet.pcore.impl.types.TypeFactory.inferSet;
 import static com.puppet.pcore.impl.types.TypeFactory.variantType;
 import static java.lang.String.format;
 
 public class FactoryDispatcherImpl<C> implements FactoryDispatcher<C> {
 	private final List<ConstructorImpl<C>> constructors;
+	private final Map<ArgumentShape,ConstructorImpl<C>> trustedSelection = new ConcurrentHashMap<>();
 
 	@SafeVarargs
 	public static <C> FactoryDispatcherImpl<C> dispatcher(ConstructorImpl<C> ...constructors) {
@@ -33,7 +37,10 @@ public class FactoryDispatcherImpl<C> implements FactoryDispatcher<C> {
 
 	@Override
 	public C createInstance(Type type, ArgumentsAccessor aa) throws IOException {
-		return aa.remember(createInstance(type, aa.getArgumentList()));
+		List<Object> args = aa.getArgumentList();
+		if(aa instanceof AbstractArgumentsAccessor && ((AbstractArgumentsAccessor)aa).isTrusted())
+			return aa.remember(createTrustedInstance(type, args));
+		return aa.remember(createInstance(type, args));
 	}
 
 	@Override
@@ -43,13 +50,73 @@ public class FactoryDispatcherImpl<C> implements FactoryDispatcher<C> {
 
 	@Override
 	public C createInstance(Type type, List<Object> args) {
+		return selectConstructor(type, args).initFunction().createInstance(args);
+	}
+
+	@Override
+	public C createTrustedInstance(Type type, List<Object> args) {
+		ArgumentShape shape = new ArgumentShape(args);
+		ConstructorImpl<C> ctor = trustedSelection.get(shape);
+		if(ctor == null) {
+			ctor = onlyConstructorForShapeOf(args);
+			if(ctor == null)
+				// None or several constructors accept the shape so the signatures must decide, and since
+				// that depends on the values, the result cannot be cached
+				ctor = selectConstructor(type, args);
+			else
+				trustedSelection.put(shape, ctor);
+		}
+		return ctor.trustedInitFunction().createInstance(args);
+	}
+
+	private ConstructorImpl<C> onlyConstructorForShapeOf(List<Object> args) {
+		ConstructorImpl<C> found = null;
+		for(ConstructorImpl<C> ctor : constructors) {
+			if(ctor.acceptsShapeOf(args)) {
+				if(found != null)
+					return null;
+				found = ctor;
+			}
+		}
+		return found;
+	}
+
+	private ConstructorImpl<C> selectConstructor(Type type, List<Object> args) {
 		for(ConstructorImpl<C> ctor : constructors)
-			if(ctor.signature().isInstance(args))
-				return ctor.initFunction().createInstance(args);
+			if(ctor.acceptsShapeOf(args) && ctor.signature().isInstance(args))
+				return ctor;
+
+		Supplier<String> description = TypeMismatchDescriber.SINGLETON.instanceMismatchDescription(
+				variantType(map(constructors, ConstructorImpl::signature)), args);
+		throw new TypeAssertionException(() -> format("The factory that creates instances of type '%s' %s", type, description.get()));
+	}
+
+	/**
+	 * The classes of a list of arguments. Used as the key when caching the constructor selected
+	 * for trusted arguments.
+	 */
+	private static final class ArgumentShape {
+		private final Class<?>[] classes;
+		private final int hashCode;
+
+		ArgumentShape(List<Object> args) {
+			int top = args.size();
+			classes = new Class<?>[top];
+			for(int idx = 0; idx < top; ++idx) {
+				Object arg = args.get(idx);
+				classes[idx] = arg == null ? null : arg.getClass();
+			}
+			hashCode = Arrays.hashCode(classes);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof ArgumentShape && Arrays.equals(classes, ((ArgumentShape)o).classes);
+		}
 
-		throw new TypeAssertionException(format(
-				"The factory that creates instances of type '%s' %s",
-				type,
-				TypeMismatchDescriber.SINGLETON.describeMismatch(variantType(map(constructors, ConstructorImpl::signature)), inferSet(args))));
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
 	}
 }
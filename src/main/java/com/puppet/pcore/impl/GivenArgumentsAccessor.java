@@ -9,7 +9,23 @@ public class GivenArgumentsAccessor extends AbstractArgumentsAccessor {
 	private final Object[] arguments;
 
 	public GivenArgumentsAccessor(ObjectType type, Object...arguments) {
-		super(type, arguments.length);
+		this(type, false, arguments);
+	}
+
+	/**
+	 * Creates an accessor for arguments that are known to be valid. Missing arguments are
+	 * assigned their default values but no type checking takes place.
+	 *
+	 * @param type the type that the arguments are intended for
+	 * @param arguments the arguments
+	 * @return the created accessor
+	 */
+	public static GivenArgumentsAccessor trusted(ObjectType type, Object...arguments) {
+		return new GivenArgumentsAccessor(type, true, arguments);
+	}
+
+	private GivenArgumentsAccessor(ObjectType type, boolean trusted, Object[] arguments) {
+		super(type, arguments.length, trusted);
 		int max = parameterInfo.attributes.size();
 		if(max == arguments.length)
 			this.arguments = arguments;
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
@@ -15,8 +16,9 @@ public class ImplementationRegistryImpl implements ImplementationRegistry {
 
 	private boolean frozen = false;
 	private final ImplementationRegistryImpl parent;
-	private final Map<String,Function<?,?>> attributeProviderPerType = new HashMap<>();
-	private final Map<String,FactoryDispatcher<?>> creatorPerType = new HashMap<>();
+	// Concurrent since dispatchers for dynamic objects are registered lazily, possibly by parallel deserializers
+	private final Map<String,Function<?,?>> attributeProviderPerType = new ConcurrentHashMap<>();
+	private final Map<String,FactoryDispatcher<?>> creatorPerType = new ConcurrentHashMap<>();
 	private final List<PatternSubstitution> implNameSubstitutions = new ArrayList<>();
 	private final Map<String,String> implNamesPerType = new HashMap<>();
 	private final List<PatternSubstitution> typeNameSubstitutions = new ArrayList<>();
@@ -57,7 +59,8 @@ public class ImplementationRegistryImpl implements ImplementationRegistry {
 	public <T> void registerImplementation(String typeName, FactoryDispatcher<T> creator, Function<T, Object[]> attributeProvider) {
 		assertModifiable();
 		creatorPerType.put(typeName, creator);
-		attributeProviderPerType.put(typeName, attributeProvider);
+		if(attributeProvider != null)
+			attributeProviderPerType.put(typeName, attributeProvider);
 	}
 
 	@Override
@@ -10,6 +10,12 @@ import com.puppet.pcore.semver.VersionRange;
 import com.puppet.pcore.time.DurationFormat;
 import com.puppet.pcore.time.InstantFormat;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
@@ -19,7 +25,7 @@ import static com.puppet.pcore.impl.types.TypeFactory.*;
 import static java.lang.String.format;
 import static java.util.Collections.singletonMap;
 
-public class StringConverter extends Polymorphic<String> {
+public class StringConverter extends Polymorphic<Void> {
 	static class StringFormatException extends IllegalArgumentException {
 		StringFormatException(String typeString, char actual, String expected) {
 			super(format("Illegal format '%c' specified for value of %s type - expected one of the characters '%s'", actual, typeString, expected));
@@ -118,6 +124,22 @@ public class StringConverter extends Polymorphic<String> {
 		 */
 		final String origFmt;
 
+		/**
+		 * Original format string with the format character replaced by 's'
+		 */
+		final String stringFmt;
+
+		/**
+		 * True when the format has no flags, width, or precision
+		 */
+		final boolean isPlain;
+
+		/**
+		 * True when the format can be applied to a string without using a {@link java.util.Formatter}, i.e. when
+		 * the only flags are width, precision, and left adjust
+		 */
+		final boolean isSimpleString;
+
 		static final char[] delimiters = { '[', '{', '(', '<', '|' };
 		static final Map<Character, char[]> delimiterPairs = asMap(
 				'[', new char[] { '[', ']' },
@@ -161,6 +183,10 @@ public class StringConverter extends Polymorphic<String> {
 			this.separator = separator;
 			this.separator2 = separator2;
 			this.containerFormats = containerFormats;
+
+			stringFmt = format.substring(0, format.length() - 1) + 's';
+			isSimpleString = !isAlt && plus == 0 && !isZeroPad && leftDelimiter == 0;
+			isPlain = isSimpleString && !isLeft && width == null && prec == null;
 		}
 
 		private static boolean hasDelimOnce(String flags, String format, char flag) {
@@ -274,7 +300,49 @@ public class StringConverter extends Polymorphic<String> {
 
 	public static final StringConverter singleton = new StringConverter();
 
-	private static final DispatchMap dispatchMap = initPolymorphicDispatch(StringConverter.class, "string", 3);
+	/**
+	 * A compiled string format specification. The formats of the specification are parsed, validated, and
+	 * merged with the default formats once. A plan is immutable and can be shared between threads.
+	 */
+	public final class FormatPlan {
+		private final Format format;
+		private final Map<AnyType, Format> formats;
+
+		private FormatPlan(Format format, Map<AnyType, Format> formats) {
+			this.format = format;
+			this.formats = formats;
+		}
+
+		public String convert(Object value) {
+			StringBuilder bld = new StringBuilder();
+			try {
+				convert(value, bld);
+			} catch(IOException e) {
+				// A StringBuilder never throws IOException
+				throw new UncheckedIOException(e);
+			}
+			return bld.toString();
+		}
+
+		/**
+		 * Converts the given value and appends the result to the given output.
+		 *
+		 * @param value the value to convert
+		 * @param out the output to append to
+		 * @throws IOException propagated from the output
+		 */
+		public void convert(Object value, Appendable out) throws IOException {
+			AnyType valueType = infer(value);
+			StringConverter.this.convert(valueType, value, format == null ? formats : singletonMap(valueType, format), DEFAULT_INDENTATION, out);
+		}
+	}
+
+	private final FormatPlan defaultPlan = new FormatPlan(null, DEFAULT_FORMATS);
+	private final BoundedCache<Object, FormatPlan> plans = new BoundedCache<>(256);
+
+	private static final MathContext GENERAL_PRECISION = new MathContext(6, RoundingMode.HALF_UP);
+
+	private static final DispatchMap dispatchMap = initPolymorphicDispatch(StringConverter.class, "string", 4);
 
 	@Override
 	protected DispatchMap getDispatchMap() {
@@ -286,17 +354,57 @@ public class StringConverter extends Polymorphic<String> {
 	}
 
 	public String convert(Object value, Object stringFormats) {
-		AnyType valueType = infer(value);
-		Map<AnyType, Format> formats = stringFormats instanceof String
-		  ? singletonMap(valueType, new Format((String)stringFormats))
-		  : (Default.SINGLETON.equals(stringFormats)
-				? DEFAULT_FORMATS
-				: Format.mergeFormats(DEFAULT_FORMATS, validateFormats(stringFormats)));
-		return convert(valueType, value, formats, DEFAULT_INDENTATION);
+		return compile(stringFormats).convert(value);
+	}
+
+	/**
+	 * Converts the given value and appends the result to the given output. Containers are written element by
+	 * element so no intermediate strings are created for them.
+	 *
+	 * @param value the value to convert
+	 * @param stringFormats a format String, a Hash of type to format mappings, or Default
+	 * @param out the output to append to
+	 * @throws IOException propagated from the output
+	 */
+	public void convert(Object value, Object stringFormats, Appendable out) throws IOException {
+		compile(stringFormats).convert(value, out);
+	}
+
+	/**
+	 * Compiles the given format specification into a plan that can be used for repeated conversions. Plans
+	 * are cached by specification so a specification must not be modified once it has been compiled.
+	 *
+	 * @param stringFormats a format String, a Hash of type to format mappings, or Default
+	 * @return the compiled plan
+	 */
+	public FormatPlan compile(Object stringFormats) {
+		if(stringFormats == null || Default.SINGLETON.equals(stringFormats))
+			return defaultPlan;
+
+		FormatPlan plan = plans.get(stringFormats);
+		if(plan == null) {
+			if(stringFormats instanceof String)
+				plan = new FormatPlan(new Format((String)stringFormats), null);
+			else {
+				plan = new FormatPlan(null, Format.mergeFormats(DEFAULT_FORMATS, validateFormats(stringFormats)));
+				stringFormats = new LinkedHashMap<>((Map<?, ?>)stringFormats);
+			}
+			plans.put(stringFormats, plan);
+		}
+		return plan;
 	}
 
-	private String convert(AnyType valueType, Object value, Map<AnyType, Format> stringFormats, Indentation indent) {
-		return dispatch(valueType, value, stringFormats, indent);
+	private void convert(AnyType valueType, Object value, Map<AnyType, Format> stringFormats, Indentation indent, Appendable out) throws IOException {
+		try {
+			dispatchWOCatch(valueType, value, stringFormats, indent, out);
+		} catch(InvocationTargetException e) {
+			Throwable te = e.getCause();
+			if(te instanceof IOException)
+				throw (IOException)te;
+			if(!(te instanceof RuntimeException))
+				te = new RuntimeException(te);
+			throw (RuntimeException)te;
+		}
 	}
 
 	@SuppressWarnings("unchecked")
@@ -342,12 +450,19 @@ public class StringConverter extends Polymorphic<String> {
 		return v instanceof List || v instanceof Map;
 	}
 
-	String string(AnyType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(AnyType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
-		return format(f.origFmt.replace('p', 's'), val);
+		switch(f.fmt) {
+		case 's':
+		case 'p':
+			out.append(f.isPlain ? String.valueOf(val) : format(f.stringFmt, val));
+			break;
+		default:
+			out.append(format(f.origFmt, val));
+		}
 	}
 
-	String string(ArrayType valType, List<?> val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(ArrayType valType, List<?> val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 'a':
@@ -361,74 +476,69 @@ public class StringConverter extends Polymorphic<String> {
 		String sep = f.separator == null ? DEFAULT_ARRAY_FORMAT.separator : f.separator;
 		Map<AnyType, Format> containerFormats = f.containerFormats == null ? DEFAULT_CONTAINER_FORMATS : f.containerFormats;
 		indent = indent.indenting(f.isAlt || indent.isIndending);
-		StringBuilder bld = new StringBuilder();
 		if(indent.breaks()) {
-			bld.append('\n');
-			bld.append(indent.padding);
+			out.append('\n');
+			appendPadding(indent, out);
 		}
 		char[] delims = f.delimiterPair(DEFAULT_ARRAY_DELMITERS);
 		if(delims[0] != 0)
-			bld.append(delims[0]);
+			out.append(delims[0]);
 
 		Indentation childrenIndent = indent.increase(f.isAlt);
-
-		// Make a first pass to format each element
+		Indentation elementIndent = childrenIndent.subsequent();
 		final int top = val.size();
-		List<String> mapped = new ArrayList<>(top);
-		boolean[] hashOrArray = new boolean[top];
-
-		Indentation firstPassIndent = childrenIndent;
-		for(int idx = 0; idx < top; ++idx) {
-			Object v = val.get(idx);
-			hashOrArray[idx] = isArrayOrHash(v);
-			if(firstPassIndent.first)
-				firstPassIndent = firstPassIndent.subsequent();
-			AnyType childType = infer(v);
-			mapped.add(convert(childType, v, isContainer(childType) ? formatMap : containerFormats, firstPassIndent));
-		}
 
+		// Elements must be formatted up front when the decision to break depends on their combined width
+		String[] mapped = null;
 		boolean szBreak = false;
 		if(f.isAlt && f.width != null) {
+			mapped = new String[top];
 			int widest = 0;
 			for(int idx = 0; idx < top; ++idx) {
 				Object v = val.get(idx);
-				if(hashOrArray[idx])
+				StringBuilder bld = new StringBuilder();
+				convertElement(v, formatMap, containerFormats, elementIndent, bld);
+				mapped[idx] = bld.toString();
+				if(isArrayOrHash(v))
 					widest = 0;
-				else {
-					widest += mapped.get(idx).length();
-					if(widest > f.width) {
+				else if(!szBreak) {
+					widest += mapped[idx].length();
+					if(widest > f.width)
 						szBreak = true;
-						break;
-					}
 				}
 			}
 		}
-		Indentation secondPassIndent = childrenIndent;
+
+		boolean prevHashOrArray = false;
 		for(int idx = 0; idx < top; ++idx) {
-			if(secondPassIndent.first) {
-				secondPassIndent = secondPassIndent.subsequent();
+			Object v = val.get(idx);
+			boolean hashOrArray = isArrayOrHash(v);
+			if(idx == 0) {
 				// if breaking, indent first element by one
-				if(szBreak && !hashOrArray[idx])
-					bld.append(' ');
+				if(szBreak && !hashOrArray)
+					out.append(' ');
 			} else {
-				bld.append(sep);
+				out.append(sep);
         // if break on each (and breaking will not occur because next is an array or hash)
         // or, if indenting, and previous was an array or hash, then break and continue on next line
         // indented.
-				if(!hashOrArray[idx] && (szBreak || f.isAlt && idx > 0 && hashOrArray[idx - 1])) {
-					bld.append("\n");
-					bld.append(secondPassIndent.padding);
-				} else if(!(f.isAlt && hashOrArray[idx]))
-					bld.append(' ');
+				if(!hashOrArray && (szBreak || f.isAlt && prevHashOrArray)) {
+					out.append("\n");
+					appendPadding(elementIndent, out);
+				} else if(!(f.isAlt && hashOrArray))
+					out.append(' ');
 			}
-			bld.append(mapped.get(idx));
+			if(mapped == null)
+				convertElement(v, formatMap, containerFormats, elementIndent, out);
+			else
+				out.append(mapped[idx]);
+			prevHashOrArray = hashOrArray;
 		}
 		if(delims[1] != 0)
-			bld.append(delims[1]);
-		return bld.toString();
+			out.append(delims[1]);
 	}
 
-	String string(BinaryType valType, Binary val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(BinaryType valType, Binary val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		String str;
 		switch(f.fmt) {
@@ -458,38 +568,45 @@ public class StringConverter extends Polymorphic<String> {
 		}
 		if(f.isAlt)
 			str = puppetQuote(str);
-		return applyStringFlags(f, str);
+		appendStringFlags(f, str, out);
 	}
 
-	String string(BooleanType valType, Boolean val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(BooleanType valType, Boolean val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		String str;
 		switch(f.fmt) {
 		case 't':
 			str = val.toString();
-			return applyStringFlags(f, f.isAlt ? str.substring(0, 1) : str);
+			appendStringFlags(f, f.isAlt ? str.substring(0, 1) : str, out);
+			break;
 		case 'T':
 			str = val.toString();
-			return applyStringFlags(f, capitalizeSegment(f.isAlt ? str.substring(0, 1) : str));
+			appendStringFlags(f, capitalizeSegment(f.isAlt ? str.substring(0, 1) : str), out);
+			break;
 		case 'y':
 			str = val ? "yes" : "no";
-			return applyStringFlags(f, f.isAlt ? str.substring(0, 1) : str);
+			appendStringFlags(f, f.isAlt ? str.substring(0, 1) : str, out);
+			break;
 		case 'Y':
 			str = val ? "Yes" : "No";
-			return applyStringFlags(f, f.isAlt ? str.substring(0, 1) : str);
+			appendStringFlags(f, f.isAlt ? str.substring(0, 1) : str, out);
+			break;
 		case 'd':case 'x':case 'X':case 'o':case 'b':case 'B':
-			return convert(integerType(0, 1), val ? 1 : 0, singletonMap(integerType(), f), indent);
+			convert(integerType(0, 1), val ? 1 : 0, singletonMap(integerType(), f), indent, out);
+			break;
 		case 'e':case 'E':case 'f':case 'g':case 'G':case 'a':case 'A':
-			return convert(floatType(0.0, 1.0), val ? 1.0 : 0.0, singletonMap(floatType(), f), indent);
+			convert(floatType(0.0, 1.0), val ? 1.0 : 0.0, singletonMap(floatType(), f), indent, out);
+			break;
 		case 's':case 'p':
 			str = val.toString();
-			return applyStringFlags(f, f.isAlt ? puppetQuote(str) : str);
+			appendStringFlags(f, f.isAlt ? puppetQuote(str) : str, out);
+			break;
 		default:
 			throw new StringFormatException("Boolean", f.fmt, "tTyYdxXobBeEfgGaAsp");
 		}
 	}
 
-	String string(DefaultType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(DefaultType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		String v;
 		switch(f.fmt) {
@@ -502,10 +619,10 @@ public class StringConverter extends Polymorphic<String> {
 		default:
 			throw new StringFormatException("Default", f.fmt, "dDsp");
 		}
-		return applyStringFlags(f, v);
+		appendStringFlags(f, v, out);
 	}
 
-	String string(FloatType valType, Number val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(FloatType valType, Number val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 'd':
@@ -516,9 +633,12 @@ public class StringConverter extends Polymorphic<String> {
 		case 'B':
 			long iv = val.longValue();
 			AnyType ivt = infer(iv);
-			return convert(ivt, iv, singletonMap(ivt, f), indent);
+			convert(ivt, iv, singletonMap(ivt, f), indent, out);
+			break;
 		case 'p':
-			return format(f.origFmt.replace('p', 'g'), val);
+			String str = f.isPlain ? generalFormat(val.doubleValue()) : null;
+			out.append(str == null ? format(f.origFmt.substring(0, f.origFmt.length() - 1) + 'g', val) : str);
+			break;
 		case 'e':
 		case 'E':
 		case 'f':
@@ -526,21 +646,24 @@ public class StringConverter extends Polymorphic<String> {
 		case 'G':
 		case 'a':
 		case 'A':
-			return format(f.origFmt, val);
+			out.append(format(f.origFmt, val));
+			break;
 		case 's':
-			return applyStringFlags(f, f.isAlt ? puppetQuote(val.toString()) : val.toString());
+			appendStringFlags(f, f.isAlt ? puppetQuote(val.toString()) : val.toString(), out);
+			break;
 		default:
 			throw new StringFormatException("Float", f.fmt, "dxXobBeEfgGaAsp");
 		}
 	}
 
-	String string(HashType valType, Map<?, ?> val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(HashType valType, Map<?, ?> val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 
 		switch(f.fmt) {
 		case 'a':
 			List<?> arrayHash = mapAsPairs(val);
-			return convert(infer(arrayHash), arrayHash, formatMap, indent);
+			convert(infer(arrayHash), arrayHash, formatMap, indent, out);
+			break;
 		case 'h':
 		case 's':
 		case 'p':
@@ -551,47 +674,37 @@ public class StringConverter extends Polymorphic<String> {
 			sep += f.isAlt ? '\n' : ' ';
 
 			indent = indent.indenting(f.isAlt || indent.isIndending);
-			StringBuilder bld = new StringBuilder();
 			if(indent.breaks()) {
-				bld.append('\n');
-				bld.append(indent.padding);
+				out.append('\n');
+				appendPadding(indent, out);
 			}
 
 			Indentation childrenIndent = indent.increase(false);
 
-			char[] padding = new char[0];
-			String condBreak = "";
-			if(f.isAlt) {
-				condBreak = "\n";
-				padding = childrenIndent.padding;
-			}
-
 			if(delims[0] != 0)
-				bld.append(delims[0]);
-			bld.append(condBreak);
-			if(!val.isEmpty()) {
-				for(Map.Entry<?,?> entry : val.entrySet()) {
-					Object k = entry.getKey();
-					Object v = entry.getValue();
-					AnyType kt = infer(k);
-					AnyType vt = infer(v);
-					bld.append(padding);
-					bld.append(convert(kt, k, isContainer(kt) ? formatMap : containerFormats, childrenIndent));
-					bld.append(assoc);
-					bld.append(convert(vt, v, isContainer(vt) ? formatMap : containerFormats, childrenIndent));
-					bld.append(sep);
-				}
-				// Remove last separator
-				bld.setLength(bld.length() - sep.length());
+				out.append(delims[0]);
+			if(f.isAlt)
+				out.append('\n');
+			boolean first = true;
+			for(Map.Entry<?,?> entry : val.entrySet()) {
+				if(first)
+					first = false;
+				else
+					out.append(sep);
+				if(f.isAlt)
+					appendPadding(childrenIndent, out);
+				convertElement(entry.getKey(), formatMap, containerFormats, childrenIndent, out);
+				out.append(assoc);
+				convertElement(entry.getValue(), formatMap, containerFormats, childrenIndent, out);
 			}
 
 			if(f.isAlt) {
-				bld.append(condBreak);
-				bld.append(indent.padding);
+				out.append('\n');
+				appendPadding(indent, out);
 			}
 			if(delims[1] != 0)
-				bld.append(delims[1]);
-			return bld.toString();
+				out.append(delims[1]);
+			break;
 		default:
 			throw new StringFormatException("Hash", f.fmt, "hasp");
 		}
@@ -629,7 +742,7 @@ public class StringConverter extends Polymorphic<String> {
 		}
 	}
 
-	String string(IntegerType valType, Number val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(IntegerType valType, Number val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 'x':
@@ -653,19 +766,18 @@ public class StringConverter extends Polymorphic<String> {
 			int computedFieldWidth = pfx.length() + Math.max(numWidth, intString.length());
 			int spacePad = totWidth - computedFieldWidth;
 
-			StringBuilder bld = new StringBuilder();
 			while(--spacePad >= 0)
-				bld.append(' ');
+				out.append(' ');
 
-			bld.append(pfx);
+			out.append(pfx);
 			if(zeroPad > 0) {
 				char padChar = f.fmt == 'p' ? ' ' : '0';
 				while(--zeroPad >= 0)
-					bld.append(padChar);
+					out.append(padChar);
 			}
 
-			bld.append(intString);
-			return bld.toString();
+			out.append(intString);
+			break;
 		case 'e':
 		case 'E':
 		case 'f':
@@ -673,58 +785,66 @@ public class StringConverter extends Polymorphic<String> {
 		case 'G':
 		case 'a':
 		case 'A':
-			return format(f.origFmt, val.doubleValue());
+			out.append(format(f.origFmt, val.doubleValue()));
+			break;
 		case 'c':
 			String s = new String(Character.toChars(val.intValue()));
-			return f.isAlt ? applyStringFlags(f, puppetQuote(s)) : format(f.origFmt.replace('c', 's'), s);
+			if(f.isAlt)
+				appendStringFlags(f, puppetQuote(s), out);
+			else
+				appendStringFormat(f, s, out);
+			break;
 		case 's':
-			return applyStringFlags(f, f.isAlt ? puppetQuote(val.toString()) : val.toString());
+			appendStringFlags(f, f.isAlt ? puppetQuote(val.toString()) : val.toString(), out);
+			break;
 		default:
 			throw new StringFormatException("Integer", f.fmt, "dxXobBeEfgGaAspc");
 		}
 	}
 
-	String string(IteratorType valType, Iterator<?> val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(IteratorType valType, Iterator<?> val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		List<Object> list = new ArrayList<>();
 		Format f = getFormat(valType, formatMap);
 		while(val.hasNext())
 			list.add(val.next());
 
 		AnyType arrayType = infer(list);
-		return convert(arrayType, list, Format.mergeFormats(formatMap, singletonMap(arrayType, f)), indent);
+		convert(arrayType, list, Format.mergeFormats(formatMap, singletonMap(arrayType, f)), indent, out);
 	}
 
-	String string(ObjectType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(ObjectType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 'p':
 			indent = indent.indenting(f.isAlt || indent.isIndending);
-			StringBuilder bld = new StringBuilder();
 			TypeFormatter tf = indent.isIndending
-					? new TypeFormatter(bld, indent.level, 2, false, false)
-					: new TypeFormatter(bld, 0, 0, false, false);
+					? new TypeFormatter(out, indent.level, 2, false, false)
+					: new TypeFormatter(out, 0, 0, false, false);
 			tf.format(val);
-			return bld.toString();
+			break;
 		case 's':case 'q':
-			return val.toString();
+			out.append(val.toString());
+			break;
 		default:
 			throw new StringFormatException("Object", f.fmt, "spq");
 		}
 	}
 
-	String string(RuntimeType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(RuntimeType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 's':
-			return val.toString();
+			out.append(val.toString());
+			break;
 		case 'p':case 'q':
-			return puppetQuote(val.toString());
+			puppetQuote(val.toString(), out);
+			break;
 		default:
 			throw new StringFormatException("Object", f.fmt, "spq");
 		}
 	}
 
-	String string(RegexpType valType, Regexp val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(RegexpType valType, Regexp val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		String rxString = val.toString();
 		switch(f.fmt) {
@@ -747,46 +867,57 @@ public class StringConverter extends Polymorphic<String> {
 			if(escaped)
 				bld.append('\\');
 			bld.append('/');
-			return applyStringFlags(f, bld.toString());
+			appendStringFlags(f, bld.toString(), out);
+			break;
 		case 's':
-			return applyStringFlags(f, f.isAlt ? puppetQuote(rxString) : rxString);
+			appendStringFlags(f, f.isAlt ? puppetQuote(rxString) : rxString, out);
+			break;
 		default:
 			throw new StringFormatException("Regexp", f.fmt, "ps");
 		}
 	}
 
-	String string(StringType valType, String val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(StringType valType, String val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 's':
-			return format(f.origFmt, val);
+			appendStringFormat(f, val, out);
+			return;
 		case 'p':
-			return applyStringFlags(f, puppetQuote(val));
+			if(f.isPlain)
+				puppetQuote(val, out);
+			else
+				appendStringFlags(f, puppetQuote(val), out);
+			return;
 		case 'c':
 			val = capitalizeSegment(val);
-			return f.isAlt ? applyStringFlags(f, puppetQuote(val)) : format(f.origFmt.replace('c', 's'), val);
+			break;
 		case 'C':
 			val = capitalizeSegments(val);
-			return f.isAlt ? applyStringFlags(f, puppetQuote(val)) : format(f.origFmt.replace('C', 's'), val);
+			break;
 		case 'u':
 			val = val.toUpperCase();
-			return f.isAlt ? applyStringFlags(f, puppetQuote(val)) : format(f.origFmt.replace('u', 's'), val);
+			break;
 		case 'd':
 			val = val.toLowerCase();
-			return f.isAlt ? applyStringFlags(f, puppetQuote(val)) : format(f.origFmt.replace('d', 's'), val);
+			break;
 		case 't':
 			val = val.trim();
-			return f.isAlt ? applyStringFlags(f, puppetQuote(val)) : format(f.origFmt.replace('t', 's'), val);
+			break;
 		default:
 			throw new StringFormatException("String", f.fmt, "cCudspt");
 		}
+		if(f.isAlt)
+			appendStringFlags(f, puppetQuote(val), out);
+		else
+			appendStringFormat(f, val, out);
 	}
 
-	String string(StructType valType, Map<?,?> val, Map<AnyType, Format> formatMap, Indentation indent) {
-		return string(hashType(), val, formatMap, indent);
+	void string(StructType valType, Map<?,?> val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
+		string(hashType(), val, formatMap, indent, out);
 	}
 
-	String string(UndefType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(UndefType valType, Object val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		String v;
 		switch(f.fmt) {
@@ -814,92 +945,147 @@ public class StringConverter extends Polymorphic<String> {
 		default:
 			throw new StringFormatException("String", f.fmt, "nudxXobBeEfgGaAvVsp");
 		}
-		return applyStringFlags(f, v);
+		appendStringFlags(f, v, out);
 	}
 
-	String string(TypeType valType, AnyType val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(TypeType valType, AnyType val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 's':
-			return applyStringFlags(f, f.isAlt ? puppetQuote(val.toString()) : val.toString());
+			appendStringFlags(f, f.isAlt ? puppetQuote(val.toString()) : val.toString(), out);
+			break;
 		case 'p':
-			return applyStringFlags(f, val.toString());
+			appendStringFlags(f, val.toString(), out);
+			break;
 		default:
 			throw new StringFormatException("Type", f.fmt, "sp");
 		}
 	}
 
-	String string(TimeSpanType valType, Duration val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(TimeSpanType valType, Duration val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 's':
 			String str = DurationFormat.defaultFormat(val);
-			return applyStringFlags(f, f.isAlt ? puppetQuote(str) : str);
+			appendStringFlags(f, f.isAlt ? puppetQuote(str) : str, out);
+			break;
 		case 'p':
-			return applyStringFlags(f, "TimeSpan('" + DurationFormat.defaultFormat(val) + "')");
+			appendStringFlags(f, "TimeSpan('" + DurationFormat.defaultFormat(val) + "')", out);
+			break;
 		default:
 			throw new StringFormatException("TimeSpan", f.fmt, "sp");
 		}
 	}
 
-	String string(TimestampType valType, Instant val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(TimestampType valType, Instant val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 's':
 			String str = InstantFormat.defaultFormat(val);
-			return applyStringFlags(f, f.isAlt ? puppetQuote(str) : str);
+			appendStringFlags(f, f.isAlt ? puppetQuote(str) : str, out);
+			break;
 		case 'p':
-			return applyStringFlags(f, "Timestamp('" + InstantFormat.defaultFormat(val) + "')");
+			appendStringFlags(f, "Timestamp('" + InstantFormat.defaultFormat(val) + "')", out);
+			break;
 		default:
 			throw new StringFormatException("Timestamp", f.fmt, "sp");
 		}
 	}
 
-	String string(TupleType valType, List<?> val, Map<AnyType, Format> formatMap, Indentation indent) {
-		return string(arrayType(), val, formatMap, indent);
+	void string(TupleType valType, List<?> val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
+		string(arrayType(), val, formatMap, indent, out);
 	}
 
-	String string(SemVerType valType, Version val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(SemVerType valType, Version val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 's':
 			String str = val.toString();
-			return applyStringFlags(f, f.isAlt ? puppetQuote(str) : str);
+			appendStringFlags(f, f.isAlt ? puppetQuote(str) : str, out);
+			break;
 		case 'p':
-			return applyStringFlags(f, "SemVer('" + val.toString() + "')");
+			appendStringFlags(f, "SemVer('" + val.toString() + "')", out);
+			break;
 		default:
 			throw new StringFormatException("SemVer", f.fmt, "sp");
 		}
 	}
 
-	String string(SemVerRangeType valType, VersionRange val, Map<AnyType, Format> formatMap, Indentation indent) {
+	void string(SemVerRangeType valType, VersionRange val, Map<AnyType, Format> formatMap, Indentation indent, Appendable out) throws IOException {
 		Format f = getFormat(valType, formatMap);
 		switch(f.fmt) {
 		case 's':
 			String str = val.toString();
-			return applyStringFlags(f, f.isAlt ? puppetQuote(str) : str);
+			appendStringFlags(f, f.isAlt ? puppetQuote(str) : str, out);
+			break;
 		case 'p':
-			return applyStringFlags(f, "SemVerRange('" + val.toString() + "')");
+			appendStringFlags(f, "SemVerRange('" + val.toString() + "')", out);
+			break;
 		default:
 			throw new StringFormatException("SemVerRange", f.fmt, "sp");
 		}
 	}
 
 	static String applyStringFlags(Format f, String str) {
-		if(f.isLeft || f.width != null || f.prec != null) {
-			StringBuilder bld = new StringBuilder("%");
-			if(f.isLeft)
-				bld.append('-');
-			if(f.width != null)
-				bld.append(f.width);
-			if(f.prec != null) {
-				bld.append('.');
-				bld.append(f.prec);
-			}
-			bld.append('s');
-			return format(bld.toString(), str);
-		}
-		return str;
+		if(f.prec != null && f.prec < str.length())
+			str = str.substring(0, f.prec);
+		if(f.width == null || f.width <= str.length())
+			return str;
+
+		StringBuilder bld = new StringBuilder(f.width);
+		if(f.isLeft)
+			bld.append(str);
+		for(int pad = f.width - str.length(); pad > 0; --pad)
+			bld.append(' ');
+		if(!f.isLeft)
+			bld.append(str);
+		return bld.toString();
+	}
+
+	static void appendStringFlags(Format f, String str, Appendable out) throws IOException {
+		int len = str.length();
+		if(f.prec != null && f.prec < len)
+			len = f.prec;
+		int pad = f.width == null ? 0 : f.width - len;
+		if(!f.isLeft)
+			for(; pad > 0; --pad)
+				out.append(' ');
+		out.append(str, 0, len);
+		for(; pad > 0; --pad)
+			out.append(' ');
+	}
+
+	/**
+	 * Formats the given value the same way as <code>String.format("%g", value)</code> does for values that are
+	 * represented in decimal notation. Returns <code>null</code> for values that require scientific notation,
+	 * zeroes, and values that are not finite.
+	 */
+	static String generalFormat(double value) {
+		if(value == 0.0 || Double.isNaN(value) || Double.isInfinite(value))
+			return null;
+
+		BigDecimal rounded = new BigDecimal(Double.toString(value)).round(GENERAL_PRECISION);
+		int exponent = rounded.precision() - rounded.scale() - 1;
+		if(exponent < -4 || exponent >= GENERAL_PRECISION.getPrecision())
+			return null;
+		return rounded.setScale(GENERAL_PRECISION.getPrecision() - 1 - exponent, RoundingMode.UNNECESSARY).toPlainString();
+	}
+
+	private static void appendPadding(Indentation indent, Appendable out) throws IOException {
+		for(int idx = indent.padding.length; idx > 0; --idx)
+			out.append(' ');
+	}
+
+	private static void appendStringFormat(Format f, String str, Appendable out) throws IOException {
+		if(f.isSimpleString)
+			appendStringFlags(f, str, out);
+		else
+			out.append(format(f.stringFmt, str));
+	}
+
+	private void convertElement(Object value, Map<AnyType, Format> formatMap, Map<AnyType, Format> containerFormats, Indentation indent, Appendable out) throws IOException {
+		AnyType type = infer(value);
+		convert(type, value, isContainer(type) ? formatMap : containerFormats, indent, out);
 	}
 
 	private static Format getFormat(AnyType type, Map<AnyType, Format> formatMap) {
@@ -916,32 +1102,42 @@ public class StringConverter extends Polymorphic<String> {
 	}
 
 	public static void puppetQuote(String s, StringBuilder bld) {
+		try {
+			puppetQuote(s, (Appendable)bld);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static void puppetQuote(String s, Appendable out) throws IOException {
 		int top = s.length();
-		boolean escaped = false;
-		int start = bld.length();
-		bld.append('\'');
 		for(int idx = 0; idx < top; ++idx) {
-			char c = s.charAt(idx);
-			if(c < 0x20) {
-				bld.setLength(start);
+			if(s.charAt(idx) < 0x20) {
+				StringBuilder bld = new StringBuilder();
 				doubleQuote(s, bld, true);
+				out.append(bld);
 				return;
 			}
+		}
 
+		boolean escaped = false;
+		out.append('\'');
+		for(int idx = 0; idx < top; ++idx) {
+			char c = s.charAt(idx);
 			if(escaped) {
-				bld.append('\\');
-				bld.append(c);
+				out.append('\\');
+				out.append(c);
 				escaped = false;
 			} else if(c == '\'') {
-				bld.append('\\');
-				bld.append(c);
+				out.append('\\');
+				out.append(c);
 			} else if(c == '\\')
 				escaped = true;
 			else
-				bld.append(c);
+				out.append(c);
 		}
 		if(escaped)
-			bld.append('\\');
-		bld.append('\'');
+			out.append('\\');
+		out.append('\'');
 	}
 }
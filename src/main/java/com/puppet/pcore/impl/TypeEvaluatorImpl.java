@@ -18,6 +18,7 @@ import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.puppet.pcore.impl.Constants.KEY_NAME_AUTHORITY;
 import static com.puppet.pcore.impl.Helpers.map;
@@ -95,6 +96,7 @@ public class TypeEvaluatorImpl extends Polymorphic<Object> implements TypeEvalua
 	}
 
 	public final Pcore pcore;
+	private final Map<String,AnyType> typesByName = new ConcurrentHashMap<>();
 
 	public TypeEvaluatorImpl(Pcore pcore) {
 		this.pcore = pcore;
@@ -204,6 +206,18 @@ public class TypeEvaluatorImpl extends Polymorphic<Object> implements TypeEvalua
 		throw new TypeResolverException(format("'%s' did not resolve to a Pcore type", expression));
 	}
 
+	// A bound type cannot be redefined so successful resolutions are cached for the lifetime of this evaluator
+	@Override
+	public AnyType resolveTypeByName(String qualifiedName) {
+		AnyType type = typesByName.get(qualifiedName);
+		if(type == null) {
+			type = resolveType(qualifiedName);
+			if(!(type instanceof TypeReferenceType))
+				typesByName.put(qualifiedName, type);
+		}
+		return type;
+	}
+
 	@Override
 	protected DispatchMap getDispatchMap() {
 		return dispatchMap;
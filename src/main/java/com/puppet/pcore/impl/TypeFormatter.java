@@ -8,6 +8,8 @@ import com.puppet.pcore.semver.Version;
 import com.puppet.pcore.semver.VersionRange;
 import com.puppet.pcore.time.DurationFormat;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
@@ -28,37 +30,87 @@ public class TypeFormatter extends Polymorphic<Void> {
 		void append();
 	}
 
+	/**
+	 * Thrown to abandon the formatting once the maximum length has been reached
+	 */
+	private static class Truncated extends RuntimeException {
+		Truncated() {
+			super(null, null, false, false);
+		}
+	}
+
+	/**
+	 * Appended to the output when it is truncated
+	 */
+	public static final String TRUNCATION_MARK = "...";
+
 	private static final DispatchMap dispatchMap = initPolymorphicDispatch(TypeFormatter.class, "_format");
 	private static final String COMMA_SEP = ", ";
 	private static final String HASH_ENTRY_OP = " => ";
+	private boolean cacheable = true;
 	private final boolean debug;
-	private final StringBuilder out;
+	private final Appendable out;
 	private boolean expanded;
 	private IdentityHashMap<Object,Object> guard;
 	private int indent;
 	private final int indentWidth;
+	private int length;
+	private final int maxLength;
+	private boolean pendingSeparator;
+	private boolean truncated;
 	private TypeSetType typeSet;
 
-	public TypeFormatter(StringBuilder out) {
+	public TypeFormatter(Appendable out) {
 		this(out, -1, 0, false, false);
 	}
 
-	public TypeFormatter(StringBuilder out, boolean aliasExpanded) {
+	public TypeFormatter(Appendable out, boolean aliasExpanded) {
 		this(out, -1, 0, aliasExpanded, false);
 	}
 
-	public TypeFormatter(StringBuilder out, int indent, int indentWidth, boolean aliasExpanded, boolean debug) {
+	public TypeFormatter(Appendable out, int indent, int indentWidth, boolean aliasExpanded, boolean debug) {
+		this(out, indent, indentWidth, aliasExpanded, debug, -1);
+	}
+
+	/**
+	 * Creates a formatter that stops when <code>maxLength</code> characters have been written and then appends
+	 * the {@link #TRUNCATION_MARK}. A negative <code>maxLength</code> means that the output is unlimited.
+	 * Exceptions thrown by the output are propagated as {@link UncheckedIOException}.
+	 */
+	public TypeFormatter(Appendable out, int indent, int indentWidth, boolean aliasExpanded, boolean debug, int maxLength) {
 		this.out = out;
 		this.expanded = aliasExpanded;
 		this.debug = debug;
 		this.indent = indent;
 		this.indentWidth = indentWidth;
+		this.maxLength = maxLength;
 		if(indent > 0)
 			indent();
 	}
 
 	public void format(Object value) {
-		dispatch(value);
+		if(truncated)
+			return;
+		try {
+			dispatch(value);
+		} catch(Truncated e) {
+			truncated = true;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> unless the formatted values contained types, such as type sets and anonymous objects,
+	 * whose string form can change when they are resolved
+	 */
+	public boolean isCacheable() {
+		return cacheable;
+	}
+
+	/**
+	 * @return <code>true</code> if the output was truncated because the maximum length was reached
+	 */
+	public boolean isTruncated() {
+		return truncated;
 	}
 
 	@Override
@@ -67,7 +119,7 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(AnyType t) {
-		out.append("Any");
+		append("Any");
 	}
 
 	void _format(ArrayType t) {
@@ -82,11 +134,11 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(BinaryType t) {
-		out.append("Binary");
+		append("Binary");
 	}
 
 	void _format(BooleanType t) {
-		out.append("Boolean");
+		append("Boolean");
 	}
 
 	void _format(CallableType t) {
@@ -95,14 +147,14 @@ public class TypeFormatter extends Polymorphic<Void> {
 		else {
 			appendArray("Callable", () -> {
 				appendArray("", () -> appendCallableParams(t));
-				out.append(COMMA_SEP);
+				pendingSeparator = true;
 				appendValues(false, t.returnType);
 			});
 		}
 	}
 
 	void _format(CatalogEntryType t) {
-		out.append("CatalogEntry");
+		append("CatalogEntry");
 	}
 
 	void _format(ClassType t) {
@@ -115,7 +167,7 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(DefaultType t) {
-		out.append("Default");
+		append("Default");
 	}
 
 	void _format(EnumType t) {
@@ -131,11 +183,11 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(Void undef) {
-		out.append("undef");
+		append("undef");
 	}
 
 	void _format(Boolean value) {
-		out.append(value.toString());
+		append(value.toString());
 	}
 
 	void _format(Character value) {
@@ -143,15 +195,15 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(Float value) {
-		out.append(value.toString());
+		append(value.toString());
 	}
 
 	void _format(Default value) {
-		out.append("default");
+		append("default");
 	}
 
 	void _format(Double value) {
-		out.append(value.toString());
+		append(value.toString());
 	}
 
 	void _format(Version value) {
@@ -176,7 +228,7 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(Regexp value) {
-		puppetRegexp(value.toString(), out);
+		appendRegexp(value.toString());
 	}
 
 	void _format(HashType t) {
@@ -191,19 +243,19 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(Byte b) {
-		out.append(b.toString());
+		append(b.toString());
 	}
 
 	void _format(Short s) {
-		out.append(s.toString());
+		append(s.toString());
 	}
 
 	void _format(Integer i) {
-		out.append(i.toString());
+		append(i.toString());
 	}
 
 	void _format(Long l) {
-		out.append(l.toString());
+		append(l.toString());
 	}
 
 	void _format(InitType t) {
@@ -218,11 +270,11 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(IterableType t) {
-		appendArray("Iterable", anyType().equals(t.type), () -> format(t.type));
+		appendArray("Iterable", anyType().equals(t.type), () -> dispatch(t.type));
 	}
 
 	void _format(IteratorType t) {
-		appendArray("Iterator", anyType().equals(t.type), () -> format(t.type));
+		appendArray("Iterator", anyType().equals(t.type), () -> dispatch(t.type));
 	}
 
 	void _format(List<?> list) {
@@ -232,22 +284,24 @@ public class TypeFormatter extends Polymorphic<Void> {
 	void _format(NotUndefType t) {
 		appendArray("NotUndef", anyType().equals(t.type), () -> {
 			AnyType tt = t.type;
-			format(tt instanceof StringType && ((StringType)tt).value != null ? ((StringType)tt).value : tt);
+			dispatch(tt instanceof StringType && ((StringType)tt).value != null ? ((StringType)tt).value : tt);
 		});
 	}
 
 	void _format(NumericType t) {
-		out.append("Numeric");
+		append("Numeric");
 	}
 
 	void _format(ObjectType t) {
+		if(t.name() == null)
+			cacheable = false;
 		if(expanded)
 			appendObjectHash(t.initHash(typeSet == null || !typeSet.definesType(t)));
 		else {
 			if(typeSet != null)
-				out.append(typeSet.nameFor(t));
+				append(typeSet.nameFor(t));
 			else
-				out.append(t.name() == null ? "Object" : t.name());
+				append(t.name() == null ? "Object" : t.name());
 		}
 	}
 
@@ -264,31 +318,29 @@ public class TypeFormatter extends Polymorphic<Void> {
 	void _format(OptionalType t) {
 		appendArray("Optional", anyType().equals(t.type), () -> {
 			AnyType tt = t.type;
-			format(tt instanceof StringType && ((StringType)tt).value != null ? ((StringType)tt).value : tt);
+			dispatch(tt instanceof StringType && ((StringType)tt).value != null ? ((StringType)tt).value : tt);
 		});
 	}
 
 	void _format(PatternType t) {
 		appendArray("Pattern", t.regexps.isEmpty(), () -> {
 			for(RegexpType rx : t.regexps) {
-				puppetRegexp(rx.pattern.toString(), out);
-				out.append(COMMA_SEP);
+				appendRegexp(rx.pattern.toString());
+				pendingSeparator = true;
 			}
 			chompList();
 		});
 	}
 
 	void _format(RegexpType t) {
-		appendArray("Regexp", RegexpType.DEFAULT_PATTERN.equals(t.pattern.toString()), () -> puppetRegexp(
-				t.pattern.toString(),
-				out));
+		appendArray("Regexp", RegexpType.DEFAULT_PATTERN.equals(t.pattern.toString()), () -> appendRegexp(t.pattern.toString()));
 	}
 
 	void _format(ResourceType t) {
 		if(t.typeName == null)
-			out.append("Resource");
+			append("Resource");
 		else
-			appendArray(capitalizeSegments(t.typeName), t.title == null, () -> format(t.title));
+			appendArray(capitalizeSegments(t.typeName), t.title == null, () -> dispatch(t.title));
 	}
 
 	void _format(RuntimeType t) {
@@ -297,15 +349,15 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(ScalarType t) {
-		out.append("Scalar");
+		append("Scalar");
 	}
 
 	void _format(ScalarDataType t) {
-		out.append("ScalarData");
+		append("ScalarData");
 	}
 
 	void _format(SemVerRangeType t) {
-		out.append("SemVerRange");
+		append("SemVerRange");
 	}
 
 	void _format(SemVerType t) {
@@ -313,17 +365,17 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(SensitiveType t) {
-		appendArray("Sensitive", anyType().equals(t.type), () -> format(t.type));
+		appendArray("Sensitive", anyType().equals(t.type), () -> dispatch(t.type));
 	}
 
 	void _format(String s) {
-		puppetQuote(s, out);
+		append(puppetQuote(s));
 	}
 
 	void _format(StringType t) {
 		List<String> range = rangeArrayPart(t.size, true);
 		if(debug && t.value != null)
-			appendArray("String", () -> format(t.value));
+			appendArray("String", () -> dispatch(t.value));
 		else
 			appendArray("String", range.isEmpty() || t.value != null, () -> appendFormatted(false, range));
 	}
@@ -340,12 +392,12 @@ public class TypeFormatter extends Polymorphic<Void> {
 	void _format(TimeSpanType t) {
 		appendArray("TimeSpan", t.isUnbounded(), () -> {
 			if(TimeSpanType.MIN_DURATION.equals(t.min))
-				out.append("default");
+				append("default");
 			else
-				format(t.min);
+				dispatch(t.min);
 			if(!(TimeSpanType.MAX_DURATION.equals(t.max) || t.min.equals(t.max))) {
-				out.append(COMMA_SEP);
-				format(t.max);
+				pendingSeparator = true;
+				dispatch(t.max);
 			}
 		});
 	}
@@ -353,12 +405,12 @@ public class TypeFormatter extends Polymorphic<Void> {
 	void _format(TimestampType t) {
 		appendArray("Timestamp", t.isUnbounded(), () -> {
 			if(Instant.MIN.equals(t.min))
-				out.append("default");
+				append("default");
 			else
-				format(t.min);
+				dispatch(t.min);
 			if(!(Instant.MAX.equals(t.max) || t.min.equals(t.max))) {
-				out.append(COMMA_SEP);
-				format(t.max);
+				pendingSeparator = true;
+				dispatch(t.max);
 			}
 		});
 	}
@@ -373,7 +425,7 @@ public class TypeFormatter extends Polymorphic<Void> {
 
 	void _format(TypeAliasType t) {
 		if(t.equals(typeAliasType())) {
-			out.append("TypeAlias");
+			append("TypeAlias");
 			return;
 		}
 
@@ -384,16 +436,16 @@ public class TypeFormatter extends Polymorphic<Void> {
 			expand = guard.put(t, t) == null;
 		}
 		if(typeSet == null) {
-			out.append(t.name);
+			append(t.name);
 			if(expand) {
-				out.append(" = ");
+				append(" = ");
 				appendValues(false, t.resolvedType());
 			}
 		} else {
 			if(expand && typeSet.definesType(t))
 				appendValues(false, t.resolvedType());
 			else
-				out.append(typeSet.nameFor(t));
+				append(typeSet.nameFor(t));
 		}
 	}
 
@@ -403,13 +455,14 @@ public class TypeFormatter extends Polymorphic<Void> {
 
 	@SuppressWarnings("unchecked")
 	void _format(TypeSetType t) {
-		appendArray("TypeSet", () -> appendHash(t._pcoreInitHash(), (k) -> out.append(symbolicKey(k)), (e) -> {
+		cacheable = false;
+		appendArray("TypeSet", () -> appendHash(t._pcoreInitHash(), (k) -> append(symbolicKey(k)), (e) -> {
 			switch(e.getKey()) {
 			case KEY_TYPES:
 				TypeSetType saveTS = typeSet;
 				typeSet = t;
 				try {
-					appendHash((Map<String,Object>)e.getValue(), (tk) -> out.append(symbolicKey(tk)), (te) -> {
+					appendHash((Map<String,Object>)e.getValue(), (tk) -> append(symbolicKey(tk)), (te) -> {
 						if(te.getValue() instanceof Map<?,?>)
 							appendObjectHash((Map<String,Object>)te.getValue());
 						else
@@ -420,8 +473,8 @@ public class TypeFormatter extends Polymorphic<Void> {
 				}
 				break;
 			case KEY_REFERENCES:
-				appendHash((Map<String,Object>)e.getValue(), (tk) -> out.append(symbolicKey(tk)), (te) ->
-						appendHash((Map<String,Object>)te.getValue(), (ttk) -> out.append(symbolicKey(ttk)), null));
+				appendHash((Map<String,Object>)e.getValue(), (tk) -> append(symbolicKey(tk)), (te) ->
+						appendHash((Map<String,Object>)te.getValue(), (ttk) -> append(symbolicKey(ttk)), null));
 				break;
 			default:
 				appendValues(false, e.getValue());
@@ -430,15 +483,15 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	void _format(TypeType t) {
-		appendArray("Type", anyType().equals(t.type), () -> format(t.type));
+		appendArray("Type", anyType().equals(t.type), () -> dispatch(t.type));
 	}
 
 	void _format(UndefType t) {
-		out.append("Undef");
+		append("Undef");
 	}
 
 	void _format(UnitType t) {
-		out.append("Unit");
+		append("Unit");
 	}
 
 	void _format(VariantType t) {
@@ -461,16 +514,32 @@ public class TypeFormatter extends Polymorphic<Void> {
 		memberHash.put(ko, element.value);
 	}
 
+	private void append(char c) {
+		flushSeparator();
+		write(c);
+	}
+
+	private void append(CharSequence s) {
+		flushSeparator();
+		write(s);
+	}
+
+	private void appendRegexp(String s) {
+		StringBuilder bld = new StringBuilder();
+		puppetRegexp(s, bld);
+		append(bld);
+	}
+
 	private void appendArray(String typeName, ArgsAppender appender) {
 		appendArray(typeName, false, appender);
 	}
 
 	private void appendArray(String typeName, boolean empty, ArgsAppender appender) {
-		out.append(typeName);
+		append(typeName);
 		if(!empty) {
-			out.append("[");
+			append("[");
 			appender.append();
-			out.append("]");
+			append("]");
 		}
 	}
 
@@ -490,8 +559,8 @@ public class TypeFormatter extends Polymorphic<Void> {
 	private void appendFormatted(boolean toBeContinued, List<String> values) {
 		if(!values.isEmpty()) {
 			for(String value : values) {
-				out.append(value);
-				out.append(COMMA_SEP);
+				append(value);
+				pendingSeparator = true;
 			}
 			if(!toBeContinued)
 				chompList();
@@ -499,29 +568,29 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	private <K, V> void appendHash(Map<K,V> hash, Consumer<K> keyProc, Consumer<Map.Entry<K,V>> entryProc) {
-		out.append('{');
+		append('{');
 		if(indent >= 0)
 			++indent;
 		for(Map.Entry<K,V> entry : hash.entrySet()) {
 			if(indent >= 0)
 				newline();
 			if(keyProc == null)
-				format(entry.getKey());
+				dispatch(entry.getKey());
 			else
 				keyProc.accept(entry.getKey());
-			out.append(HASH_ENTRY_OP);
+			append(HASH_ENTRY_OP);
 			if(entryProc == null)
-				format(entry.getValue());
+				dispatch(entry.getValue());
 			else
 				entryProc.accept(entry);
-			out.append(COMMA_SEP);
+			pendingSeparator = true;
 		}
 		chompList();
 		if(indent >= 0) {
 			indent--;
 			newline();
 		}
-		out.append('}');
+		append('}');
 	}
 
 	@SuppressWarnings("unchecked")
@@ -529,16 +598,16 @@ public class TypeFormatter extends Polymorphic<Void> {
 		boolean saveExpanded = expanded;
 		expanded = false;
 		try {
-			appendArray("Object", () -> appendHash(hash, (k) -> out.append(symbolicKey(k)), (e) -> {
+			appendArray("Object", () -> appendHash(hash, (k) -> append(symbolicKey(k)), (e) -> {
 				switch(e.getKey()) {
 				case Constants.KEY_ATTRIBUTES:
 				case Constants.KEY_FUNCTIONS:
 					appendHash((Map<String,Object>)e.getValue(), null, (fe) -> {
 						if(fe.getValue() instanceof Map<?,?>)
-							appendHash((Map<String,Object>)fe.getValue(), (fak) -> out.append(symbolicKey(fak)), (fa -> {
+							appendHash((Map<String,Object>)fe.getValue(), (fak) -> append(symbolicKey(fak)), (fa -> {
 								switch(fa.getKey()) {
 								case Constants.KEY_KIND:
-									out.append(fa.getValue());
+									append(String.valueOf(fa.getValue()));
 									break;
 								default:
 									appendValues(false, fa.getValue());
@@ -562,8 +631,8 @@ public class TypeFormatter extends Polymorphic<Void> {
 			extends Object> values) {
 		if(!values.isEmpty()) {
 			for(Object value : values) {
-				format(value);
-				out.append(COMMA_SEP);
+				dispatch(value);
+				pendingSeparator = true;
 			}
 			if(!toBeContinued)
 				chompList();
@@ -573,8 +642,8 @@ public class TypeFormatter extends Polymorphic<Void> {
 	private void appendValues(boolean toBeContinued, Object... values) {
 		if(values.length > 0) {
 			for(Object value : values) {
-				format(value);
-				out.append(COMMA_SEP);
+				dispatch(value);
+				pendingSeparator = true;
 			}
 			if(!toBeContinued)
 				chompList();
@@ -582,30 +651,21 @@ public class TypeFormatter extends Polymorphic<Void> {
 	}
 
 	private void chompList() {
-		int pos = out.length();
-		while(--pos >= 0) {
-			char c = out.charAt(pos);
-			if(!(Character.isWhitespace(c) || c == ','))
-				break;
-		}
-		out.setLength(++pos);
+		pendingSeparator = false;
 	}
 
 	private void indent() {
 		int spaceCount = indent * indentWidth;
 		while(--spaceCount >= 0)
-			out.append(' ');
+			write(' ');
 	}
 
 	private void newline() {
-		int pos = out.length();
-		while(--pos >= 0) {
-			char c = out.charAt(pos);
-			if(c != ' ' && c != '\t')
-				break;
+		if(pendingSeparator) {
+			pendingSeparator = false;
+			write(',');
 		}
-		out.setLength(++pos);
-		out.append('\n');
+		write('\n');
 		indent();
 	}
 
@@ -626,4 +686,39 @@ public class TypeFormatter extends Polymorphic<Void> {
 	private String symbolicKey(String key) {
 		return key;
 	}
+
+	private void flushSeparator() {
+		if(pendingSeparator) {
+			pendingSeparator = false;
+			write(COMMA_SEP);
+		}
+	}
+
+	private void write(char c) {
+		try {
+			if(length == maxLength) {
+				out.append(TRUNCATION_MARK);
+				throw new Truncated();
+			}
+			out.append(c);
+			++length;
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void write(CharSequence s) {
+		try {
+			int len = s.length();
+			if(maxLength >= 0 && length + len > maxLength) {
+				out.append(s, 0, maxLength - length);
+				out.append(TRUNCATION_MARK);
+				throw new Truncated();
+			}
+			out.append(s);
+			length += len;
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 }
@@ -1,9 +1,13 @@
 package com.puppet.pcore.impl;
 
+import com.puppet.pcore.Type;
 import com.puppet.pcore.TypeAssertionException;
+import com.puppet.pcore.ValidationResult;
+import com.puppet.pcore.impl.serialization.JsonPath;
 import com.puppet.pcore.impl.types.*;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static com.puppet.pcore.impl.Helpers.*;
 import static com.puppet.pcore.impl.LabelProvider.aOrAn;
@@ -42,7 +46,50 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 		}
 	}
 
-	static abstract class Mismatch implements Cloneable {
+	// Stack of path segments that is converted into path elements only when a mismatch is found
+	private static class PathStack {
+		private final List<Object> keys = new ArrayList<>();
+		private final List<PathType> pathTypes = new ArrayList<>();
+
+		void pop() {
+			int last = keys.size() - 1;
+			keys.remove(last);
+			pathTypes.remove(last);
+		}
+
+		void push(PathType pathType, Object key) {
+			keys.add(key);
+			pathTypes.add(pathType);
+		}
+
+		List<PathElement> toList() {
+			int top = keys.size();
+			List<PathElement> path = new ArrayList<>(top);
+			for(int idx = 0; idx < top; ++idx)
+				path.add(new PathElement(pathTypes.get(idx), String.valueOf(keys.get(idx))));
+			return path;
+		}
+	}
+
+	private static class Result implements ValidationResult {
+		private final List<Failure> failures;
+
+		Result(List<? extends Failure> failures) {
+			this.failures = unmodifiableList(failures);
+		}
+
+		@Override
+		public List<Failure> failures() {
+			return failures;
+		}
+
+		@Override
+		public boolean isValid() {
+			return failures.isEmpty();
+		}
+	}
+
+	static abstract class Mismatch implements Cloneable, ValidationResult.Failure {
 		List<PathElement> path;
 		private List<PathElement> canonicalPath;
 
@@ -50,6 +97,27 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 			this.path = path == null ? emptyList() : path;
 		}
 
+		@Override
+		public Type actual() {
+			return null;
+		}
+
+		@Override
+		public Type expected() {
+			return null;
+		}
+
+		@Override
+		public String message() {
+			return format();
+		}
+
+		@Override
+		public String path() {
+			List<Object> segments = jsonPathSegments();
+			return segments == null ? null : JsonPath.toJsonPath(segments);
+		}
+
 		@Override
 		public boolean equals(Object o) {
 			return o != null && getClass().equals(o.getClass()) && canonicalPath().equals(((Mismatch)o).canonicalPath());
@@ -87,6 +155,24 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 			return canonicalPath;
 		}
 
+		List<Object> jsonPathSegments() {
+			List<Object> segments = new ArrayList<>(path.size());
+			for(PathElement pe : path) {
+				switch(pe.pathType) {
+				case INDEX:
+					segments.add(Integer.valueOf(pe.key));
+					break;
+				case ENTRY:
+				case ENTRY_KEY:
+					segments.add(pe.key);
+					break;
+				default:
+					return null;
+				}
+			}
+			return segments;
+		}
+
 		Mismatch copy() {
 			try {
 				Mismatch m = (Mismatch)this.clone();
@@ -144,6 +230,14 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 			super(path, key);
 		}
 
+		@Override
+		List<Object> jsonPathSegments() {
+			List<Object> segments = super.jsonPathSegments();
+			if(segments != null)
+				segments.add(key);
+			return segments;
+		}
+
 		@Override
 		String text() {
 			return "expects a value for key '" + key + '\'';
@@ -166,6 +260,14 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 			super(path, key);
 		}
 
+		@Override
+		List<Object> jsonPathSegments() {
+			List<Object> segments = super.jsonPathSegments();
+			if(segments != null)
+				segments.add(key);
+			return segments;
+		}
+
 		@Override
 		String text() {
 			return "unrecognized key '" + key + '\'';
@@ -232,6 +334,11 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 			this.actual = actual.normalize();
 		}
 
+		@Override
+		public Type actual() {
+			return actual;
+		}
+
 		@Override
 		public boolean equals(Object o) {
 			return super.equals(o)
@@ -239,6 +346,11 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 					&& actual.equals(((ExpectedActualMismatch)o).actual);
 		}
 
+		@Override
+		public Type expected() {
+			return expected;
+		}
+
 		@Override
 		public int hashCode() {
 			return (super.hashCode() * 31 + expected.hashCode()) * 31 + actual.hashCode();
@@ -278,7 +390,7 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 				List<String> els;
 				if(reportDetailed(el, a)) {
 					as = detailedActualToS(el, a);
-					els = map(el, AnyType::toExpandedString);
+					els = expandedTypeStrings(el);
 				} else {
 					els = distinct(map(el, AnyType::name));
 					as = a.name();
@@ -300,7 +412,7 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 			} else {
 				if(reportDetailed(e, a)) {
 					as = detailedActualToS(e, a);
-					es = e.toExpandedString();
+					es = expandedTypeString(e);
 				} else {
 					as = a.name();
 					es = e.name();
@@ -359,17 +471,17 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 		private String detailedActualToS(List<AnyType> el, AnyType a) {
 			el = allResolved(el);
 			if(alwaysFullyDetailed(el, a))
-				return a.toExpandedString();
+				return expandedTypeString(a);
 			AnyType g = a.generalize();
-			return anyAssignable(el, g) ? a.toExpandedString() : g.toString();
+			return anyAssignable(el, g) ? expandedTypeString(a) : typeString(g, false);
 		}
 
 		private String detailedActualToS(AnyType e, AnyType a) {
 			e = allResolved(e);
 			if(alwaysFullyDetailed(e, a))
-				return a.toExpandedString();
+				return expandedTypeString(a);
 			AnyType g = a.generalize();
-			return anyAssignable(e, g) ? a.toExpandedString() : g.toString();
+			return anyAssignable(e, g) ? expandedTypeString(a) : typeString(g, false);
 		}
 
 		private boolean reportDetailed(List<AnyType> el, AnyType a) {
@@ -414,7 +526,54 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 				e = ((OptionalType)e).actualType();
 				valuePfx = "an undef value or ";
 			}
-			return "expects " + valuePfx + "a match for " + e.toExpandedString() + ", got " + actualString();
+			return "expects " + valuePfx + "a match for " + expandedTypeString(e) + ", got " + actualString();
+		}
+	}
+
+	// A value that is not an instance of its expected type. The value is described when the message is requested
+	private static class ValueMismatch extends Mismatch {
+		private AnyType actual;
+		private String description;
+		final AnyType expected;
+		final AnyType original;
+		final Object value;
+
+		ValueMismatch(List<PathElement> path, AnyType expected, AnyType original, Object value) {
+			super(path);
+			this.expected = expected;
+			this.original = original;
+			this.value = value;
+		}
+
+		@Override
+		public AnyType actual() {
+			if(actual == null)
+				actual = inferSet(value);
+			return actual;
+		}
+
+		@Override
+		public Type expected() {
+			return original;
+		}
+
+		@Override
+		public String format() {
+			if(description == null)
+				description = describe(path);
+			return description;
+		}
+
+		@Override
+		String text() {
+			return describe(emptyList());
+		}
+
+		private String describe(List<PathElement> p) {
+			List<? extends Mismatch> mismatches = SINGLETON.doDescribe(expected, original, actual(), p);
+			return mismatches.isEmpty()
+					? new TypeMismatch(p, original, actual()).format()
+					: SINGLETON.errorString(mismatches);
 		}
 	}
 
@@ -477,6 +636,17 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 	private static final DispatchMap dispatchMap = initPolymorphicDispatch(TypeMismatchDescriber.class, "_describe", 3);
 	public static final TypeMismatchDescriber SINGLETON = new TypeMismatchDescriber();
 
+	/**
+	 * The maximum number of mismatches reported by {@link #describeInstanceMismatch(AnyType, Object)}
+	 */
+	public static final int MAX_REPORTED_MISMATCHES = 10;
+
+	/**
+	 * The maximum length of a type in a mismatch description. Longer types are truncated with the
+	 * {@link TypeFormatter#TRUNCATION_MARK}
+	 */
+	public static final int MAX_TYPE_STRING_LENGTH = 1000;
+
 	private TypeMismatchDescriber() {
 	}
 
@@ -491,6 +661,66 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 		return errorString(describe(expected, actual, emptyList()));
 	}
 
+	/**
+	 * Describe why a value is not an instance of the expected type. Unlike {@link #describeMismatch(AnyType, AnyType)}
+	 * this method does not infer the type of the whole value. Hashes and arrays are traversed against the expected
+	 * type and only the failing entries are inferred. The traversal stops once {@link #MAX_REPORTED_MISMATCHES}
+	 * mismatches have been found.
+	 *
+	 * @param expected expected type
+	 * @param value    a value that is not an instance of the expected type
+	 * @return the description
+	 */
+	public String describeInstanceMismatch(AnyType expected, Object value) {
+		return describeInstanceMismatch(expected, value, MAX_REPORTED_MISMATCHES);
+	}
+
+	/**
+	 * Describe why a value is not an instance of the expected type, reporting at most <code>maxMismatches</code>
+	 * mismatches.
+	 *
+	 * @param expected      expected type
+	 * @param value         a value that is not an instance of the expected type
+	 * @param maxMismatches maximum number of mismatches to report
+	 * @return the description
+	 */
+	public String describeInstanceMismatch(AnyType expected, Object value, int maxMismatches) {
+		return errorString(instanceMismatches(expected, value, maxMismatches));
+	}
+
+	/**
+	 * Finds the mismatches in the same way as {@link #describeInstanceMismatch(AnyType, Object)} but defers their
+	 * formatting until the returned supplier is called. The supplier retains the failing entries and their paths
+	 * but not the value itself.
+	 *
+	 * @param expected expected type
+	 * @param value    a value that is not an instance of the expected type
+	 * @return supplier of the description
+	 */
+	public Supplier<String> instanceMismatchDescription(AnyType expected, Object value) {
+		List<? extends Mismatch> mismatches = instanceMismatches(expected, value, MAX_REPORTED_MISMATCHES);
+		return () -> errorString(mismatches);
+	}
+
+	/**
+	 * Validates a value against a type in one traversal. Hashes and arrays are traversed against the expected Struct,
+	 * Hash, Array, or Tuple type. All other values are checked using {@link AnyType#isInstance(Object)}. The
+	 * descriptions of the failures are not computed until they are requested.
+	 *
+	 * @param expected expected type
+	 * @param value    the value to validate
+	 * @return the result of the validation
+	 */
+	public ValidationResult validate(AnyType expected, Object value) {
+		String unresolvedType = expected.findUnresolvedType();
+		List<Mismatch> result = new ArrayList<>();
+		if(unresolvedType != null)
+			result.add(new UnresolvedTypeReference(emptyList(), unresolvedType));
+		else
+			validateValue(expected.normalize(), expected, value, new PathStack(), result, Integer.MAX_VALUE);
+		return new Result(result);
+	}
+
 	/**
 	 * @param subject       string to be prepended to the exception message
 	 * @param parameterName parameter name
@@ -634,6 +864,27 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 		return result;
 	}
 
+	private static void addAll(List<Mismatch> result, List<? extends Mismatch> mismatches, int max) {
+		for(Mismatch m : mismatches) {
+			if(result.size() >= max)
+				break;
+			result.add(m);
+		}
+	}
+
+	private List<? extends Mismatch> instanceMismatches(AnyType expected, Object value, int maxMismatches) {
+		String unresolvedType = expected.findUnresolvedType();
+		if(unresolvedType != null)
+			return singletonList(new UnresolvedTypeReference(emptyList(), unresolvedType));
+
+		List<Mismatch> result = new ArrayList<>();
+		validateValue(expected.normalize(), expected, value, new PathStack(), result, Math.max(1, maxMismatches));
+		if(result.isEmpty())
+			// The value is not an instance but the traversal found nothing, describe the inferred type instead
+			return describe(expected, inferSet(value), emptyList());
+		return result;
+	}
+
 	private static <T> List<T> append(List<? extends T> list, T value) {
 		List<T> result = new ArrayList<>(list);
 		result.add(value);
@@ -804,6 +1055,161 @@ public class TypeMismatchDescriber extends Polymorphic<List<? extends TypeMismat
 		}
 	}
 
+	// Adds mismatches for the value to the result. Containers are traversed in the same way as describeStructStruct,
+	// describeHashStruct, describeArrayTuple, and describeTupleTuple would traverse their inferred types so that
+	// the descriptions are the same.
+	private void validateValue(AnyType expected, AnyType original, Object value, PathStack path, List<Mismatch> result, int max) {
+		if(result.size() >= max)
+			return;
+
+		if(expected instanceof TypeAliasType) {
+			validateValue(((TypeAliasType)expected).resolvedType().normalize(), expected, value, path, result, max);
+			return;
+		}
+		if(expected instanceof OptionalType) {
+			if(value != null)
+				validateValue(((OptionalType)expected).type, original instanceof TypeAliasType ? original : expected, value, path, result, max);
+			return;
+		}
+
+		if(value instanceof Map<?,?> && hasStructKeys((Map<?,?>)value)) {
+			Map<?,?> hash = (Map<?,?>)value;
+			if(expected instanceof StructType) {
+				validateStruct((StructType)expected, hash, path, result, max);
+				return;
+			}
+			if(expected instanceof HashType && !hash.isEmpty()) {
+				validateHash((HashType)expected, hash, path, result, max);
+				return;
+			}
+		}
+
+		if(value instanceof List<?> && !((List<?>)value).isEmpty()) {
+			if(expected instanceof ArrayType) {
+				validateArray((ArrayType)expected, (List<?>)value, path, result, max);
+				return;
+			}
+			if(expected instanceof TupleType) {
+				validateTuple((TupleType)expected, (List<?>)value, path, result, max);
+				return;
+			}
+		}
+
+		if(!expected.isInstance(value))
+			result.add(new ValueMismatch(path.toList(), expected, original, value));
+	}
+
+	private void validateArray(ArrayType expected, List<?> list, PathStack path, List<Mismatch> result, int max) {
+		int top = list.size();
+		if(!expected.size.isInstance(top)) {
+			result.add(new SizeMismatch(path.toList(), expected.size, integerType(top, top)));
+			return;
+		}
+		AnyType et = expected.type.normalize();
+		for(int idx = 0; idx < top && result.size() < max; ++idx) {
+			path.push(PathType.INDEX, idx);
+			validateValue(et, expected.type, list.get(idx), path, result, max);
+			path.pop();
+		}
+	}
+
+	private void validateHash(HashType expected, Map<?,?> hash, PathStack path, List<Mismatch> result, int max) {
+		int size = hash.size();
+		if(!expected.size.isInstance(size)) {
+			result.add(new SizeMismatch(path.toList(), expected.size, integerType(size, size)));
+			return;
+		}
+		AnyType kt = expected.keyType.normalize();
+		AnyType vt = expected.type.normalize();
+		for(Map.Entry<?,?> entry : hash.entrySet()) {
+			Object key = entry.getKey();
+			path.push(PathType.ENTRY_KEY, key);
+			validateValue(kt, expected.keyType, key, path, result, max);
+			path.pop();
+			path.push(PathType.ENTRY, key);
+			validateValue(vt, expected.type, entry.getValue(), path, result, max);
+			path.pop();
+			if(result.size() >= max)
+				return;
+		}
+	}
+
+	private void validateStruct(StructType expected, Map<?,?> hash, PathStack path, List<Mismatch> result, int max) {
+		int matched = 0;
+		for(StructElement e1 : expected.elements) {
+			if(result.size() >= max)
+				return;
+			String key = e1.name;
+			Object v = hash.get(key);
+			if(v == null && !hash.containsKey(key)) {
+				if(!e1.key.isAssignable(undefType()))
+					result.add(new MissingKey(path.toList(), key));
+			} else {
+				++matched;
+				path.push(PathType.ENTRY, key);
+				validateValue(e1.value.normalize(), e1.value, v, path, result, max);
+				path.pop();
+			}
+		}
+		if(matched == hash.size())
+			return;
+
+		Map<String,StructElement> members = expected.hashedMembers();
+		for(Object key : hash.keySet()) {
+			if(result.size() >= max)
+				return;
+			if(!members.containsKey(key))
+				result.add(new ExtraneousKey(path.toList(), (String)key));
+		}
+	}
+
+	private void validateTuple(TupleType expected, List<?> list, PathStack path, List<Mismatch> result, int max) {
+		int top = list.size();
+		if(!expected.givenOrActualSize.isInstance(top)) {
+			result.add(new SizeMismatch(path.toList(), expected.givenOrActualSize, integerType(top, top)));
+			return;
+		}
+		int last = expected.types.size() - 1;
+		for(int idx = 0; idx < top && last >= 0 && result.size() < max; ++idx) {
+			AnyType et = expected.types.get(idx < last ? idx : last);
+			path.push(PathType.INDEX, idx);
+			validateValue(et.normalize(), et, list.get(idx), path, result, max);
+			path.pop();
+		}
+	}
+
+	private static String expandedTypeString(AnyType type) {
+		return typeString(type, true);
+	}
+
+	// Formats types until their total length reaches the limit. The remaining types are replaced by one truncation mark
+	private static List<String> expandedTypeStrings(List<AnyType> types) {
+		List<String> result = new ArrayList<>();
+		int length = 0;
+		for(AnyType type : types) {
+			if(length >= MAX_TYPE_STRING_LENGTH) {
+				result.add(TypeFormatter.TRUNCATION_MARK);
+				break;
+			}
+			String str = expandedTypeString(type);
+			length += str.length();
+			result.add(str);
+		}
+		return result;
+	}
+
+	// The formatter stops walking the type when the limit is reached, so huge Struct and Variant types stay cheap
+	private static String typeString(AnyType type, boolean expanded) {
+		StringBuilder bld = new StringBuilder();
+		new TypeFormatter(bld, -1, 0, expanded, false, MAX_TYPE_STRING_LENGTH).format(type);
+		return bld.toString();
+	}
+
+	// True when the type inferred for the hash is a Struct
+	private static boolean hasStructKeys(Map<?,?> hash) {
+		return all(hash.keySet(), k -> k instanceof String && !((String)k).isEmpty());
+	}
+
 	@SuppressWarnings("unchecked")
 	private List<? extends Mismatch> mergeDescriptions(
 			int varyingPathPosition, Class<? extends Mismatch> mismatchClass,
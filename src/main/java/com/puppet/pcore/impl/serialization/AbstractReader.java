@@ -78,6 +78,8 @@ public abstract class AbstractReader implements Reader {
 		registerType(PCORE_OBJECT_START, data -> readPayload(data, ep -> new PcoreObjectStart(readPayloadQName(ep), ep.readInt())));
 		registerType(OBJECT_START, data -> readPayload(data, ep -> new ObjectStart(ep.readInt())));
 		registerType(SENSITIVE_START, data -> readPayload(data, ep -> SensitiveStart.SINGLETON));
+		registerType(CHUNKED_ARRAY_START, data -> readPayload(data, ep -> new ChunkedArrayStart(ep.readInt(), ep.readInt())));
+		registerType(CHUNKED_MAP_START, data -> readPayload(data, ep -> new ChunkedMapStart(ep.readInt(), ep.readInt())));
 		registerType(DEFAULT, data -> readPayload(data, ep -> Default.SINGLETON));
 		registerType(COMMENT, data -> readPayload(data, ep -> new Comment(ep.readString())));
 		registerType(REGEXP, data -> readPayload(data, ep -> Regexp.compile(ep.readString())));
@@ -95,7 +97,7 @@ public abstract class AbstractReader implements Reader {
 		}));
 		registerType(VERSION, data -> readPayload(data, ep -> Version.create(ep.readString())));
 		registerType(VERSION_RANGE, data -> readPayload(data, ep -> VersionRange.create(ep.readString())));
-		registerType(BINARY, data -> readPayload(data, ep -> new Binary(ep.readBytes())));
+		registerType(BINARY, data -> readPayload(data, ep -> Binary.wrap(ep.readBytes())));
 		registerType(BASE64, data -> readPayload(data, ep -> Binary.fromBase64Strict(ep.readString())));
 	}
 }
@@ -44,8 +44,7 @@ public abstract class AbstractWriter implements Writer {
 
 	@Override
 	public void write(Object value) throws IOException {
-		if(!tabulate || value == null || value instanceof Number || value instanceof Boolean || value instanceof Symbol ||
-				value instanceof NotTabulated) {
+		if(!tabulate || !isTabulated(value)) {
 			// Not tabulated
 			packer.write(value);
 			return;
@@ -68,6 +67,24 @@ public abstract class AbstractWriter implements Writer {
 		return false;
 	}
 
+	private static boolean isTabulated(Object value) {
+		switch(ValueKind.of(value)) {
+		case UNDEF:
+		case NUMBER:
+		case BOOLEAN:
+		case SYMBOL:
+		case TABULATION:
+		case ARRAY_START:
+		case MAP_START:
+		case SENSITIVE_START:
+		case CHUNKED_START:
+		case NOT_TABULATED:
+			return false;
+		default:
+			return true;
+		}
+	}
+
 	private <T> void registerType(byte extensionNumber, Class<T> extClass, PayloadWriterFunction<T> block) {
 		packer.registerType(extensionNumber, extClass, block);
 	}
@@ -83,6 +100,14 @@ public abstract class AbstractWriter implements Writer {
 		}));
 		registerType(OBJECT_START, ObjectStart.class, o -> buildPayload(ep -> ep.write(o.attributeCount)));
 		registerType(SENSITIVE_START, SensitiveStart.class, o -> buildPayload(ep -> {}));
+		registerType(CHUNKED_ARRAY_START, ChunkedArrayStart.class, o -> buildPayload(ep -> {
+			ep.write(o.size);
+			ep.write(o.chunkCount);
+		}));
+		registerType(CHUNKED_MAP_START, ChunkedMapStart.class, o -> buildPayload(ep -> {
+			ep.write(o.size);
+			ep.write(o.chunkCount);
+		}));
 		registerType(DEFAULT, Default.class, o -> buildPayload(ep -> {}));
 		registerType(COMMENT, Comment.class, o -> buildPayload(ep -> ep.write(o.comment)));
 		registerType(REGEXP, Regexp.class, o -> buildPayload(ep -> ep.write(o.toString())));
@@ -99,9 +124,9 @@ public abstract class AbstractWriter implements Writer {
 		registerType(VERSION, Version.class, o -> buildPayload(ep -> ep.write(o.toString())));
 		registerType(VERSION_RANGE, VersionRange.class, o -> buildPayload(ep -> ep.write(o.toString())));
 		if(supportsBinary())
-			registerType(BINARY, Binary.class, o -> buildPayload(ep -> ep.write(o.toByteArray())));
+			registerType(BINARY, Binary.class, o -> buildPayload(ep -> ep.writeBytes(o)));
 		else
-			registerType(BASE64, Binary.class, o -> buildPayload(ep -> ep.write(o.toString())));
+			registerType(BASE64, Binary.class, o -> buildPayload(ep -> ep.writeBytes(o)));
 	}
 
 	private void writePayloadQName(ExtensionAwarePacker ep, String qname) throws IOException {
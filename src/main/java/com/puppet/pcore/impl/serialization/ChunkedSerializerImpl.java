@@ -0,0 +1,86 @@
+package com.puppet.pcore.impl.serialization;
+
+import com.puppet.pcore.Binary;
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.impl.serialization.extension.ChunkedArrayStart;
+import com.puppet.pcore.impl.serialization.extension.ChunkedMapStart;
+import com.puppet.pcore.serialization.Writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A serializer that divides top-level Lists and Hashes that are larger than a given chunk size into
+ * chunks. Each chunk is serialized into a separate buffer using a separate tabulation table, optionally
+ * in parallel. The resulting buffers are then written as a sequence of binaries.
+ * <p>
+ * Since each chunk has its own tabulation table, values that are shared between chunks will be
+ * deserialized as separate instances.
+ */
+public class ChunkedSerializerImpl extends SerializerImpl {
+	private final IOFunction<OutputStream,Writer> chunkWriterFactory;
+	private final int chunkSize;
+	private final boolean parallel;
+	private int depth;
+
+	public ChunkedSerializerImpl(Pcore pcore, Writer writer, IOFunction<OutputStream,Writer> chunkWriterFactory, int chunkSize, boolean parallel) {
+		super(pcore, writer);
+		this.chunkWriterFactory = chunkWriterFactory;
+		this.chunkSize = chunkSize;
+		this.parallel = parallel;
+	}
+
+	@Override
+	public void write(Object value) throws IOException {
+		if(depth == 0) {
+			if(value instanceof List<?> && ((List<?>)value).size() > chunkSize) {
+				writeChunkedList((List<?>)value);
+				return;
+			}
+			if(value instanceof Map<?,?> && ((Map<?,?>)value).size() > chunkSize) {
+				writeChunkedMap((Map<?,?>)value);
+				return;
+			}
+		}
+		++depth;
+		try {
+			super.write(value);
+		} finally {
+			--depth;
+		}
+	}
+
+	private void writeChunkedList(List<?> list) throws IOException {
+		List<? extends List<?>> chunks = Chunks.divide(list, chunkSize);
+		writer.write(new ChunkedArrayStart(list.size(), chunks.size()));
+		for(Binary chunk : Chunks.map(chunks, parallel, elements -> serializeChunk(elements, false)))
+			writer.write(chunk);
+	}
+
+	private void writeChunkedMap(Map<?,?> map) throws IOException {
+		List<? extends List<? extends Map.Entry<?,?>>> chunks = Chunks.divide(new ArrayList<>(map.entrySet()), chunkSize);
+		writer.write(new ChunkedMapStart(map.size(), chunks.size()));
+		for(Binary chunk : Chunks.map(chunks, parallel, entries -> serializeChunk(entries, true)))
+			writer.write(chunk);
+	}
+
+	private Binary serializeChunk(List<?> elements, boolean entries) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SerializerImpl serializer = new SerializerImpl(pcore, chunkWriterFactory.apply(out));
+		serializer.write(elements.size());
+		for(Object element : elements) {
+			if(entries) {
+				Map.Entry<?,?> entry = (Map.Entry<?,?>)element;
+				serializer.write(entry.getKey());
+				serializer.write(entry.getValue());
+			} else
+				serializer.write(element);
+		}
+		serializer.finish();
+		return Binary.wrap(out.toByteArray());
+	}
+}
@@ -0,0 +1,62 @@
+package com.puppet.pcore.impl.serialization;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Helpers used when dividing a large List or Hash into chunks that are serialized and deserialized
+ * independently of each other.
+ */
+class Chunks {
+	/**
+	 * Divides the given <code>elements</code> into chunks of at most <code>chunkSize</code> elements.
+	 */
+	static <T> List<List<T>> divide(List<T> elements, int chunkSize) {
+		int size = elements.size();
+		List<List<T>> chunks = new ArrayList<>((size + chunkSize - 1) / chunkSize);
+		for(int idx = 0; idx < size; idx += chunkSize)
+			chunks.add(elements.subList(idx, Math.min(idx + chunkSize, size)));
+		return chunks;
+	}
+
+	/**
+	 * Applies the <code>function</code> to each of the given chunks and returns the results in the
+	 * same order as the chunks. When <code>parallel</code> is <code>true</code>, the chunks are processed
+	 * using the common fork join pool.
+	 */
+	static <T, R> List<R> map(List<T> chunks, boolean parallel, IOFunction<T,R> function) throws IOException {
+		List<R> results = new ArrayList<>(chunks.size());
+		if(!parallel || chunks.size() < 2) {
+			for(T chunk : chunks)
+				results.add(function.apply(chunk));
+			return results;
+		}
+
+		List<CompletableFuture<R>> futures = new ArrayList<>(chunks.size());
+		for(T chunk : chunks)
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					return function.apply(chunk);
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}));
+
+		try {
+			for(CompletableFuture<R> future : futures)
+				results.add(future.join());
+		} catch(CompletionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof UncheckedIOException)
+				throw ((UncheckedIOException)cause).getCause();
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			throw e;
+		}
+		return results;
+	}
+}
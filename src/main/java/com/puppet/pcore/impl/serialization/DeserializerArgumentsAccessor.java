@@ -18,8 +18,8 @@ class DeserializerArgumentsAccessor extends AbstractArgumentsAccessor {
 	private boolean initialized;
 	private State remembered;
 
-	DeserializerArgumentsAccessor(Deserializer deserializer, ObjectType type, int numberOfArguments) {
-		super(type, numberOfArguments);
+	DeserializerArgumentsAccessor(Deserializer deserializer, ObjectType type, int numberOfArguments, boolean trusted) {
+		super(type, numberOfArguments, trusted);
 		this.deserializer = (DeserializerImpl)deserializer;
 
 		this.arguments = numberOfArguments > 0 ? new Object[numberOfArguments] : EMPTY_ARRAY;
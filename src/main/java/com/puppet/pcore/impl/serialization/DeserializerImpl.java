@@ -1,5 +1,6 @@
 package com.puppet.pcore.impl.serialization;
 
+import com.puppet.pcore.Binary;
 import com.puppet.pcore.Default;
 import com.puppet.pcore.Pcore;
 import com.puppet.pcore.Sensitive;
@@ -12,19 +13,43 @@ import com.puppet.pcore.loader.Loader;
 import com.puppet.pcore.loader.TypedName;
 import com.puppet.pcore.serialization.Deserializer;
 import com.puppet.pcore.serialization.Reader;
+import com.puppet.pcore.serialization.SerializationFactory;
 import com.puppet.pcore.serialization.SerializationException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
+import static com.puppet.pcore.impl.Options.get;
+
 public class DeserializerImpl implements Deserializer {
 	private final List<Object> objectsRead = new ArrayList<>();
+	private final Map<String,ObjectType> resolvedTypes = new HashMap<>();
 	private final Reader reader;
 	private final Pcore pcore;
+	private final Map<String,Object> options;
+	private final IOFunction<InputStream,Reader> chunkReaderFactory;
+	private final boolean trusted;
+	private final boolean parallel;
 
 	public DeserializerImpl(Pcore pcore, Reader reader) {
+		this(pcore, reader, Collections.emptyMap(), null);
+	}
+
+	/**
+	 * @param pcore the pcore instance to use when resolving types
+	 * @param reader the reader to read from
+	 * @param options options such as {@link SerializationFactory#TRUSTED} and {@link SerializationFactory#PARALLEL}
+	 * @param chunkReaderFactory factory that creates readers for chunks or <code>null</code> if
+	 *                           chunked input isn't supported
+	 */
+	public DeserializerImpl(Pcore pcore, Reader reader, Map<String,Object> options, IOFunction<InputStream,Reader> chunkReaderFactory) {
 		this.pcore = pcore;
 		this.reader = reader;
+		this.options = options;
+		this.chunkReaderFactory = chunkReaderFactory;
+		this.trusted = get(options, SerializationFactory.TRUSTED, false);
+		this.parallel = get(options, SerializationFactory.PARALLEL, false);
 	}
 
 	@Override
@@ -35,65 +60,124 @@ public class DeserializerImpl implements Deserializer {
 	@Override
 	public Object read() throws IOException {
 		Object val = reader.read();
-		if(val instanceof Tabulation)
+		switch(ValueKind.of(val)) {
+		case TABULATION:
 			return objectsRead.get(((Tabulation)val).index);
-
-		if(val == null || val instanceof Number || val instanceof String || val instanceof Boolean || val instanceof
-				Default)
+		case UNDEF:
+		case STRING:
+		case NUMBER:
+		case BOOLEAN:
+		case DEFAULT:
 			return val;
-
-		if(val instanceof MapStart) {
+		case MAP_START:
 			int top = ((MapStart)val).size * 2;
-			Map<Object,Object> result = remember(new TreeMap<>());
+			Map<Object,Object> map = remember(new LinkedHashMap<>());
 			for(int idx = 0; idx < top; idx += 2) {
 				Object key = read();
-				result.put(key, read());
+				map.put(key, read());
 			}
-			return result;
-		}
-
-		if(val instanceof ArrayStart) {
-			final int top = ((ArrayStart)val).size;
+			return map;
+		case ARRAY_START:
+			top = ((ArrayStart)val).size;
 			Object[] values = new Object[top];
-			List<Object> result = remember(Helpers.asWrappingList(values));
+			List<Object> list = remember(Helpers.asWrappingList(values));
 			for(int idx = 0; idx < top; ++idx)
 				values[idx] = read();
-			return result;
+			return list;
+		case SENSITIVE_START:
+			return new Sensitive(read());
+		case PCORE_OBJECT_START:
+			return readPcoreObject((PcoreObjectStart)val);
+		case OBJECT_START:
+			ObjectStart os = (ObjectStart)val;
+			ObjectType ot = (ObjectType)read();
+			return ot.newInstance(new DeserializerArgumentsAccessor(this, ot, os.attributeCount - 1, trusted));
+		case CHUNKED_START:
+			return readChunked((ChunkedStart)val);
+		default:
+			return remember(val);
 		}
+	}
 
-		if(val instanceof SensitiveStart)
-			return new Sensitive(read());
+	private Object readChunked(ChunkedStart cs) throws IOException {
+		if(chunkReaderFactory == null)
+			throw new SerializationException("This deserializer cannot read chunked input");
+
+		boolean entries = cs instanceof ChunkedMapStart;
+		List<Binary> chunks = new ArrayList<>(cs.chunkCount);
+		for(int idx = 0; idx < cs.chunkCount; ++idx)
+			chunks.add((Binary)reader.read());
+		List<Object[]> chunkValues = Chunks.map(chunks, parallel, chunk -> readChunk(chunk, entries));
+
+		if(entries) {
+			Map<Object,Object> result = new LinkedHashMap<>();
+			for(Object[] values : chunkValues)
+				for(int idx = 0; idx < values.length; idx += 2)
+					result.put(values[idx], values[idx + 1]);
+			return result;
+		}
 
-		if(val instanceof PcoreObjectStart) {
-			PcoreObjectStart os = (PcoreObjectStart)val;
-			Type type = pcore.typeEvaluator().resolveType(os.typeName);
-			if(!(type instanceof ObjectType))
-				throw new SerializationException("No implementation mapping found for Puppet Type " + os.typeName);
+		Object[] result = new Object[cs.size];
+		int pos = 0;
+		for(Object[] values : chunkValues) {
+			System.arraycopy(values, 0, result, pos, values.length);
+			pos += values.length;
+		}
+		return Helpers.asWrappingList(result);
+	}
 
-			ObjectType ot = (ObjectType)type;
-			val = ot.newInstance(new DeserializerArgumentsAccessor(this, ot, os.attributeCount));
-			if(val instanceof ObjectType) {
-				val = ((ObjectType)val).resolve(pcore);
-				TypedName tn = new TypedName(Constants.KEY_TYPE, ((ObjectType)val).name().toLowerCase());
+	private Object[] readChunk(Binary chunk, boolean entries) throws IOException {
+		DeserializerImpl deserializer = new DeserializerImpl(pcore, chunkReaderFactory.apply(chunk.asInputStream()), options, chunkReaderFactory);
+		int top = ((Number)deserializer.read()).intValue();
+		if(entries)
+			top *= 2;
+		Object[] values = new Object[top];
+		for(int idx = 0; idx < top; ++idx)
+			values[idx] = deserializer.read();
+		return values;
+	}
 
-				// Add result to the loader unless it is the exact same instance as the type returned from loadOrNull. The add
-				// will succeed when loadOrNull returns null.
-				Loader loader = pcore.loader();
+	private Object readPcoreObject(PcoreObjectStart os) throws IOException {
+		ObjectType ot = resolveObjectType(os.typeName);
+		Object val = ot.newInstance(new DeserializerArgumentsAccessor(this, ot, os.attributeCount, trusted));
+		if(val instanceof ObjectType) {
+			Object read = val;
+			val = ((ObjectType)val).resolve(pcore);
+			TypedName tn = new TypedName(Constants.KEY_TYPE, ((ObjectType)val).name().toLowerCase());
+
+			// Add result to the loader unless it is the exact same instance as the type returned from loadOrNull. The add
+			// will succeed when loadOrNull returns null.
+			Loader loader = pcore.loader();
+			synchronized(loader) {
+				// Chunks that are read in parallel may attempt to bind the same type
 				Object prev = loader.loadOrNull(tn);
 				if(val.equals(prev))
 					val = prev;
 				else
 					loader.bind(tn, val);
 			}
-			return val;
+
+			// Subsequent references to the type must appoint the resolved type
+			if(val != read)
+				replacePlaceHolder(read, val);
 		}
+		return val;
+	}
 
-		if(val instanceof ObjectStart) {
-			ObjectStart os = (ObjectStart)val;
-			ObjectType ot = (ObjectType)read();
-			return ot.newInstance(new DeserializerArgumentsAccessor(this, ot, os.attributeCount - 1));
+	/**
+	 * Resolves the type with the given name. Each distinct name is resolved once per stream. Resolutions
+	 * are also cached by the type evaluator of the pcore instance.
+	 */
+	private ObjectType resolveObjectType(String typeName) {
+		ObjectType ot = resolvedTypes.get(typeName);
+		if(ot == null) {
+			Type type = pcore.typeEvaluator().resolveTypeByName(typeName);
+			if(!(type instanceof ObjectType))
+				throw new SerializationException("No implementation mapping found for Puppet Type " + typeName);
+			ot = (ObjectType)type;
+			resolvedTypes.put(typeName, ot);
 		}
-		return remember(val);
+		return ot;
 	}
 
 	<T> T remember(T value) {
@@ -1,5 +1,7 @@
 package com.puppet.pcore.impl.serialization;
 
+import com.puppet.pcore.Binary;
+
 import java.io.IOException;
 
 public interface ExtensionAwarePacker {
@@ -14,4 +16,7 @@ public interface ExtensionAwarePacker {
 	void write(int val) throws IOException;
 
 	void write(Object val) throws IOException;
+
+	// Writes the bytes in the native form of the packer, i.e. a binary value in MsgPack and a base64 string in JSON
+	void writeBytes(Binary val) throws IOException;
 }
@@ -0,0 +1,169 @@
+package com.puppet.pcore.impl.serialization;
+
+import com.puppet.pcore.serialization.Deserializer;
+import com.puppet.pcore.serialization.FramedDeserializer;
+import com.puppet.pcore.serialization.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Reads a stream written by a {@link FramedSerializerImpl}. Each frame is decoded by a new
+ * {@link Deserializer} so frames can be read in any order.
+ */
+public class FramedDeserializerImpl implements FramedDeserializer {
+	private final SeekableByteChannel channel;
+	private final IOFunction<InputStream,Deserializer> frameDeserializerFactory;
+	private final boolean parallel;
+	private final ByteBuffer header = ByteBuffer.allocate(Frames.HEADER_SIZE);
+	private List<Long> index;
+	private long position;
+
+	// Channel position of the first frame. Offsets in the trailing index are relative to it
+	private final long start;
+
+	/**
+	 * @param channel the channel to read from, positioned at the start of the first frame
+	 * @param frameDeserializerFactory factory that creates the deserializer for each frame
+	 * @param parallel <code>true</code> if {@link #readAll(List)} should decode frames in parallel
+	 */
+	public FramedDeserializerImpl(SeekableByteChannel channel, IOFunction<InputStream,Deserializer> frameDeserializerFactory, boolean parallel) throws IOException {
+		this.channel = channel;
+		this.frameDeserializerFactory = frameDeserializerFactory;
+		this.parallel = parallel;
+		this.start = channel.position();
+		this.position = start;
+	}
+
+	@Override
+	public List<Long> frameOffsets() throws IOException {
+		if(index == null) {
+			List<Long> offsets = readIndex();
+			index = unmodifiableList(offsets == null ? scanOffsets() : offsets);
+		}
+		return index;
+	}
+
+	@Override
+	public boolean hasNext() throws IOException {
+		return position < channel.size() && readHeader() != Frames.INDEX_MARKER;
+	}
+
+	@Override
+	public long position() {
+		return position;
+	}
+
+	@Override
+	public Object read() throws IOException {
+		return decode(readFrame());
+	}
+
+	@Override
+	public List<Object> readAll(List<Long> offsets) throws IOException {
+		List<byte[]> frames = new ArrayList<>(offsets.size());
+		long current = position;
+		try {
+			for(long offset : offsets) {
+				seek(offset);
+				frames.add(readFrame());
+			}
+		} finally {
+			position = current;
+		}
+		return Chunks.map(frames, parallel, this::decode);
+	}
+
+	@Override
+	public void seek(long offset) throws IOException {
+		if(offset < start || offset > channel.size())
+			throw new SerializationException(format("Frame offset %d is outside of stream", offset));
+		position = offset;
+	}
+
+	@Override
+	public void skip() throws IOException {
+		position += Frames.HEADER_SIZE + frameLength();
+	}
+
+	private Object decode(byte[] frame) throws IOException {
+		return frameDeserializerFactory.apply(new ByteArrayInputStream(frame)).read();
+	}
+
+	private int frameLength() throws IOException {
+		int length = readHeader();
+		if(length < 0)
+			throw new SerializationException(format("No frame at offset %d", position));
+		return length;
+	}
+
+	private byte[] readFrame() throws IOException {
+		byte[] frame = new byte[frameLength()];
+		readFully(ByteBuffer.wrap(frame), position + Frames.HEADER_SIZE);
+		position += Frames.HEADER_SIZE + frame.length;
+		return frame;
+	}
+
+	private void readFully(ByteBuffer buffer, long offset) throws IOException {
+		channel.position(offset);
+		while(buffer.hasRemaining())
+			if(channel.read(buffer) < 0)
+				throw new EOFException(format("Unexpected end of stream at offset %d", channel.position()));
+		buffer.flip();
+	}
+
+	private int readHeader() throws IOException {
+		header.clear();
+		readFully(header, position);
+		return header.getInt();
+	}
+
+	private List<Long> readIndex() throws IOException {
+		long size = channel.size();
+		if(size < Frames.TRAILER_SIZE)
+			return null;
+
+		ByteBuffer trailer = ByteBuffer.allocate(Frames.TRAILER_SIZE);
+		readFully(trailer, size - Frames.TRAILER_SIZE);
+		long indexOffset = start + trailer.getLong();
+		if(trailer.getInt() != Frames.INDEX_MAGIC || indexOffset < start || indexOffset > size - Frames.TRAILER_SIZE - 8)
+			return null;
+
+		ByteBuffer indexHeader = ByteBuffer.allocate(8);
+		readFully(indexHeader, indexOffset);
+		int count = indexHeader.getInt(4);
+		if(indexHeader.getInt(0) != Frames.INDEX_MARKER || count < 0 || indexOffset + 8 + count * 8L + Frames.TRAILER_SIZE != size)
+			return null;
+
+		ByteBuffer entries = ByteBuffer.allocate(count * 8);
+		readFully(entries, indexOffset + 8);
+		List<Long> offsets = new ArrayList<>(count);
+		for(int idx = 0; idx < count; ++idx)
+			offsets.add(start + entries.getLong());
+		return offsets;
+	}
+
+	private List<Long> scanOffsets() throws IOException {
+		List<Long> offsets = new ArrayList<>();
+		long current = position;
+		try {
+			position = start;
+			while(hasNext()) {
+				offsets.add(position);
+				skip();
+			}
+		} finally {
+			position = current;
+		}
+		return offsets;
+	}
+}
@@ -0,0 +1,62 @@
+package com.puppet.pcore.impl.serialization;
+
+import com.puppet.pcore.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A serializer that writes each value as a separate length-prefixed frame. Every frame is produced by
+ * a new {@link Serializer} so that it can be decoded without reading any of the frames that precedes it.
+ */
+public class FramedSerializerImpl implements Serializer {
+	private final DataOutputStream out;
+	private final IOFunction<OutputStream,Serializer> frameSerializerFactory;
+	private final List<Long> offsets;
+	private long position;
+
+	/**
+	 * @param out the stream to write to
+	 * @param frameSerializerFactory factory that creates the serializer for each frame
+	 * @param index <code>true</code> if an index of all frame offsets should be written by {@link #finish()}
+	 */
+	public FramedSerializerImpl(OutputStream out, IOFunction<OutputStream,Serializer> frameSerializerFactory, boolean index) {
+		this.out = new DataOutputStream(out);
+		this.frameSerializerFactory = frameSerializerFactory;
+		this.offsets = index ? new ArrayList<>() : null;
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if(offsets != null)
+			writeIndex();
+		out.flush();
+	}
+
+	@Override
+	public void write(Object value) throws IOException {
+		ByteArrayOutputStream frame = new ByteArrayOutputStream();
+		Serializer serializer = frameSerializerFactory.apply(frame);
+		serializer.write(value);
+		serializer.finish();
+
+		if(offsets != null)
+			offsets.add(position);
+		out.writeInt(frame.size());
+		frame.writeTo(out);
+		position += Frames.HEADER_SIZE + frame.size();
+	}
+
+	private void writeIndex() throws IOException {
+		out.writeInt(Frames.INDEX_MARKER);
+		out.writeInt(offsets.size());
+		for(long offset : offsets)
+			out.writeLong(offset);
+		out.writeLong(position);
+		out.writeInt(Frames.INDEX_MAGIC);
+	}
+}
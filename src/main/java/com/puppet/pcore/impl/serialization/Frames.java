@@ -0,0 +1,19 @@
+package com.puppet.pcore.impl.serialization;
+
+/**
+ * Constants describing the layout of a framed stream.
+ * <p>
+ * Each frame consists of a four byte big endian length followed by that number of bytes containing
+ * a complete serialization of one value. An optional index may follow the last frame. It starts with
+ * the {@link #INDEX_MARKER} length, followed by a four byte frame count and one eight byte offset per
+ * frame. The stream then ends with an eight byte offset to the index and the {@link #INDEX_MAGIC}.
+ */
+class Frames {
+	static final int HEADER_SIZE = 4;
+
+	static final int INDEX_MARKER = -1;
+
+	static final int INDEX_MAGIC = 0x50434649; // "PCFI"
+
+	static final int TRAILER_SIZE = 12;
+}
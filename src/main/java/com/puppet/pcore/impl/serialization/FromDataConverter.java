@@ -134,6 +134,7 @@ public class FromDataConverter implements Converter {
 	}
 
 	private final boolean allowUnresolved;
+	private boolean direct;
 	private RefEntry root;
 	private RefEntry current;
 	private Object currentKey;
@@ -156,12 +157,12 @@ public class FromDataConverter implements Converter {
 					for(int idx = 0; idx < top;) {
 						Object k = value.get(idx++);
 						Object v = value.get(idx++);
-						Object key = withoutValue(() -> convert(k));
-						with(key, () -> convert(v));
+						Object key = withoutValue(() -> convertRefs(k));
+						with(key, () -> convertRefs(v));
 					}
 				});
 			}),
-			entry(PCORE_TYPE_SENSITIVE, (Map<String, Object> hash, String typeValue) -> build(new Sensitive(convert(hash.get(PCORE_VALUE_KEY))))),
+			entry(PCORE_TYPE_SENSITIVE, (Map<String, Object> hash, String typeValue) -> build(new Sensitive(convertRefs(hash.get(PCORE_VALUE_KEY))))),
 			entry(PCORE_TYPE_DEFAULT, (Map<String, Object> hash, String typeValue) -> build(Default.SINGLETON)),
 			entry(PCORE_TYPE_SYMBOL, (Map<String, Object> hash, String typeValue) -> build(new Symbol((String)hash.get(PCORE_VALUE_KEY)))),
 			entry(PCORE_LOCAL_REF_SYMBOL, (Map<String, Object> hash, String typeValue) -> build(JsonPath.resolve(root, (String)hash.get(PCORE_VALUE_KEY))))
@@ -170,7 +171,7 @@ public class FromDataConverter implements Converter {
 	private Object defaultProc(Map<String, Object> hash, Object typeValue) {
 		Object value = hash.containsKey(PCORE_VALUE_KEY) ? hash.get(PCORE_VALUE_KEY) : reject(hash, (e) -> e.getKey().equals(PCORE_TYPE_KEY));
 		if(typeValue instanceof Map<?, ?>) {
-			Object type = withoutValue(() -> convert(typeValue));
+			Object type = direct ? convertDirect(typeValue) : withoutValue(() -> convertRefs(typeValue));
 			if(type instanceof Map) {
 				if(allowUnresolved)
 					return hash;
@@ -190,8 +191,21 @@ public class FromDataConverter implements Converter {
 		throw new SerializationException(format("Cannot parse a type from %s", typeValue));
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Converts the given <code>Data</code> <code>value</code>. Input that contains no local references is
+	 * converted in one pass directly into the resulting values. Input with local references is converted
+	 * using a tree of entries that enables resolution of those references.
+	 *
+	 * @param value the <Data>value</Data> to convert
+	 * @return the processed <code>RichData</code> result
+	 */
 	public Object convert(Object value) {
+		direct = !containsLocalRef(value);
+		return direct ? convertDirect(value) : convertRefs(value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object convertRefs(Object value) {
 		if(value instanceof Map<?, ?>) {
 			Map<String, Object> hash = (Map<String,Object>)value;
 			Object pcoreType = hash.get(PCORE_TYPE_KEY);
@@ -202,14 +216,65 @@ public class FromDataConverter implements Converter {
 
 			return pcoreType != null
 				? defaultProc(hash, pcoreType)
-			  : build(new KeyedRefEntry(), () -> hash.forEach((k, v) -> with(k, () -> convert(v))));
+			  : build(new KeyedRefEntry(), () -> hash.forEach((k, v) -> with(k, () -> convertRefs(v))));
 		}
 
 		return value instanceof List<?>
-			? build(new IndexedRefEntry(), () -> eachWithIndex((List<?>)value, (v, i) -> with(i, () -> convert(v))))
+			? build(new IndexedRefEntry(), () -> eachWithIndex((List<?>)value, (v, i) -> with(i, () -> convertRefs(v))))
 		  : build(numericConvert(value));
 	}
 
+	private static boolean containsLocalRef(Object value) {
+		if(value instanceof Map<?, ?>) {
+			Map<?, ?> hash = (Map<?, ?>)value;
+			if(PCORE_LOCAL_REF_SYMBOL.equals(hash.get(PCORE_TYPE_KEY)))
+				return true;
+			for(Object v : hash.values())
+				if(containsLocalRef(v))
+					return true;
+		} else if(value instanceof List<?>) {
+			for(Object v : (List<?>)value)
+				if(containsLocalRef(v))
+					return true;
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object convertDirect(Object value) {
+		if(value instanceof Map<?, ?>) {
+			Map<String, Object> hash = (Map<String,Object>)value;
+			Object pcoreType = hash.get(PCORE_TYPE_KEY);
+			if(pcoreType == null)
+				return mapValues(hash, (k, v) -> convertDirect(v));
+
+			if(pcoreType instanceof String) {
+				switch((String)pcoreType) {
+				case PCORE_TYPE_HASH:
+					List<Object> entries = (List<Object>)hash.get(PCORE_VALUE_KEY);
+					Map<Object, Object> result = new LinkedHashMap<>();
+					int top = entries.size();
+					for(int idx = 0; idx < top;) {
+						Object k = convertDirect(entries.get(idx++));
+						result.put(k, convertDirect(entries.get(idx++)));
+					}
+					return result;
+				case PCORE_TYPE_SENSITIVE:
+					return new Sensitive(convertDirect(hash.get(PCORE_VALUE_KEY)));
+				case PCORE_TYPE_DEFAULT:
+					return Default.SINGLETON;
+				case PCORE_TYPE_SYMBOL:
+					return new Symbol((String)hash.get(PCORE_VALUE_KEY));
+				}
+			}
+			return defaultProc(hash, pcoreType);
+		}
+
+		return value instanceof List<?>
+				? map((List<?>)value, this::convertDirect)
+				: numericConvert(value);
+	}
+
 	private static Object numericConvert(Object value) {
 		if(value instanceof Number) {
 			Number n = (Number)value;
@@ -264,6 +329,7 @@ public class FromDataConverter implements Converter {
 		private final AnyType type;
 		private final Map<String, Object> initHash;
 		private KeyedRefEntry converted;
+		private Map<String, Object> directEntries;
 		private boolean remembered = false;
 
 		ConverterAttributeAccessor(AnyType type, Map<String, Object> initHash) {
@@ -275,15 +341,20 @@ public class FromDataConverter implements Converter {
 		public Object get(int index) {
 			if(index != 0)
 				throw new IndexOutOfBoundsException("Index: "+index+", Size: 1");
+			if(direct) {
+				if(directEntries == null)
+					directEntries = mapValues(initHash, (k, v) -> convertDirect(v));
+				return directEntries;
+			}
 			if(converted == null) {
 				if(remembered) {
-					initHash.forEach((key, value) -> with(key, () -> convert(value)));
+					initHash.forEach((key, value) -> with(key, () -> convertRefs(value)));
 					converted = (KeyedRefEntry)current;
 				} else {
 					Object key = currentKey;
 					Object curr = current;
 					converted = new KeyedRefEntry();
-					build(converted, () -> initHash.forEach((k, v) -> with(k, () -> convert(v))));
+					build(converted, () -> initHash.forEach((k, v) -> with(k, () -> convertRefs(v))));
 					if(curr instanceof List<?> && key instanceof Number)
 						((List)curr).remove(((Number)key).intValue());
 				}
@@ -313,6 +384,8 @@ public class FromDataConverter implements Converter {
 
 		@Override
 		public <T> T remember(T createdInstance) {
+			if(direct)
+				return createdInstance;
 			if(converted != null)
 				converted.setValue(createdInstance);
 			else {
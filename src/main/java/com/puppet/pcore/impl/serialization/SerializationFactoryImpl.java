@@ -8,22 +8,45 @@ import com.puppet.pcore.serialization.Writer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.util.Map;
 
+import static com.puppet.pcore.impl.Options.get;
+import static java.util.Collections.emptyMap;
+
 public abstract class SerializationFactoryImpl implements SerializationFactory {
 	@Override
 	public DeserializerImpl forInputChunks(Pcore pcore) {
-		return new DeserializerImpl(pcore, reader());
+		return new DeserializerImpl(pcore, reader(), emptyMap(), this::readerOn);
 	}
 
 	@Override
 	public DeserializerImpl forInput(Pcore pcore, InputStream in) throws IOException {
-		return new DeserializerImpl(pcore, readerOn(in));
+		return forInput(pcore, emptyMap(), in);
+	}
+
+	@Override
+	public DeserializerImpl forInput(Pcore pcore, Map<String,Object> options, InputStream in) throws IOException {
+		return new DeserializerImpl(pcore, readerOn(in), options, this::readerOn);
+	}
+
+	@Override
+	public FramedDeserializerImpl forFramedInput(Pcore pcore, Map<String,Object> options, SeekableByteChannel in) throws IOException {
+		return new FramedDeserializerImpl(in, i -> forInput(pcore, options, i), get(options, PARALLEL, false));
+	}
+
+	@Override
+	public FramedSerializerImpl forFramedOutput(Pcore pcore, Map<String,Object> options, OutputStream out) {
+		return new FramedSerializerImpl(out, o -> forOutput(pcore, options, o), get(options, FRAME_INDEX, false));
 	}
 
 	@Override
 	public SerializerImpl forOutput(Pcore pcore, Map<String,Object> options, OutputStream out) throws IOException {
-		return new SerializerImpl(pcore, writerOn(options, out));
+		Writer writer = writerOn(options, out);
+		int chunkSize = get(options, CHUNK_SIZE, 0);
+		if(chunkSize > 0)
+			return new ChunkedSerializerImpl(pcore, writer, o -> writerOn(options, o), chunkSize, get(options, PARALLEL, false));
+		return new SerializerImpl(pcore, writer);
 	}
 
 	protected abstract Reader reader();
@@ -4,17 +4,11 @@ import com.puppet.pcore.*;
 import com.puppet.pcore.impl.serialization.extension.*;
 import com.puppet.pcore.impl.types.ObjectType;
 import com.puppet.pcore.impl.types.ObjectTypeExtension;
-import com.puppet.pcore.impl.types.TypeReferenceType;
-import com.puppet.pcore.regex.Regexp;
-import com.puppet.pcore.semver.Version;
-import com.puppet.pcore.semver.VersionRange;
 import com.puppet.pcore.serialization.SerializationException;
 import com.puppet.pcore.serialization.Serializer;
 import com.puppet.pcore.serialization.Writer;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,8 +18,8 @@ import static java.lang.String.format;
 
 public class SerializerImpl implements Serializer {
 	private final Map<Object,Integer> objectsWritten = new IdentityHashMap<>();
-	private final Writer writer;
-	private final Pcore pcore;
+	protected final Writer writer;
+	protected final Pcore pcore;
 
 	public SerializerImpl(Pcore pcore, Writer writer) {
 		this.pcore = pcore;
@@ -47,12 +41,19 @@ public class SerializerImpl implements Serializer {
 
 	@Override
 	public void write(Object value) throws IOException {
-		if(value == null || value instanceof Number || value instanceof String || value instanceof Boolean || value instanceof Default)
+		ValueKind kind = ValueKind.of(value);
+		switch(kind) {
+		case UNDEF:
+		case STRING:
+		case NUMBER:
+		case BOOLEAN:
+		case DEFAULT:
 			writer.write(value);
-		else {
+			break;
+		default:
 			Integer index = objectsWritten.get(value);
 			if(index == null)
-				writeTabulatedFirstTime(value);
+				writeTabulatedFirstTime(kind, value);
 			else
 				writer.write(new Tabulation(index));
 		}
@@ -81,24 +82,21 @@ public class SerializerImpl implements Serializer {
 			write(arg);
 	}
 
-	private void writeTabulatedFirstTime(Object value) throws IOException {
-		if(value instanceof Symbol
-				|| value instanceof Regexp
-				|| value instanceof Version
-				|| value instanceof VersionRange
-				|| value instanceof Duration
-				|| value instanceof Instant
-				|| value instanceof Binary
-				|| value instanceof TypeReferenceType) {
+	private void writeTabulatedFirstTime(ValueKind kind, Object value) throws IOException {
+		switch(kind) {
+		case SYMBOL:
+		case RICH_SCALAR:
 			objectsWritten.put(value, objectsWritten.size());
 			writer.write(value);
-		} else if(value instanceof List<?>) {
+			break;
+		case LIST:
 			List<?> lv = (List<?>)value;
 			objectsWritten.put(value, objectsWritten.size());
 			writer.write(new ArrayStart(lv.size()));
 			for(Object v : lv)
 				write(v);
-		} else if(value instanceof Map<?,?>) {
+			break;
+		case MAP:
 			Map<?,?> mv = (Map<?,?>)value;
 			objectsWritten.put(value, objectsWritten.size());
 			writer.write(new MapStart(mv.size()));
@@ -106,11 +104,13 @@ public class SerializerImpl implements Serializer {
 				write(me.getKey());
 				write(me.getValue());
 			}
-		} else if(value instanceof Sensitive) {
+			break;
+		case SENSITIVE:
 			objectsWritten.put(value, objectsWritten.size());
 			writer.write(SensitiveStart.SINGLETON);
 			write(((Sensitive)value).unwrap());
-		} else {
+			break;
+		default:
 			writeObject(value);
 		}
 	}
@@ -1,5 +1,6 @@
 package com.puppet.pcore.impl.serialization;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.puppet.pcore.*;
 import com.puppet.pcore.impl.StringConverter;
 import com.puppet.pcore.impl.types.AnyType;
@@ -7,28 +8,264 @@ import com.puppet.pcore.impl.types.ObjectType;
 import com.puppet.pcore.impl.types.ParameterInfo;
 import com.puppet.pcore.impl.types.RuntimeType;
 import com.puppet.pcore.serialization.SerializationException;
+import org.msgpack.core.MessagePacker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.function.Supplier;
 
-import static com.puppet.pcore.impl.Helpers.*;
+import static com.puppet.pcore.impl.Helpers.all;
 import static com.puppet.pcore.impl.Options.get;
 import static com.puppet.pcore.impl.types.TypeFactory.infer;
-import static com.puppet.pcore.impl.types.TypeFactory.scalarDataType;
 import static java.lang.String.format;
-import static java.util.Collections.singletonMap;
 
 /**
- * Class that can process an arbitrary object into a value that is assignable to <code>Data</code>.
+ * Class that can process an arbitrary object into a value that is assignable to <code>Data</code>. The
+ * <code>Data</code> can either be returned as a tree of Lists and Maps or be streamed directly to a
+ * {@link JsonGenerator} or a {@link MessagePacker}.
  */
 public class ToDataConverter implements Converter {
 	public static Object convert(Object value, Map<String,Object> options) {
 		return new ToDataConverter(options).convert(value);
 	}
 
+	public static void convert(Object value, Map<String,Object> options, JsonGenerator generator) throws IOException {
+		new ToDataConverter(options).convert(value, generator);
+	}
+
+	public static void convert(Object value, Map<String,Object> options, MessagePacker packer) throws IOException {
+		new ToDataConverter(options).convert(value, packer);
+	}
+
+	/**
+	 * Receiver of the <code>Data</code> produced by the converter
+	 */
+	interface DataSink {
+		void endArray() throws IOException;
+
+		void endMap() throws IOException;
+
+		void key(String key) throws IOException;
+
+		void scalar(Object value) throws IOException;
+
+		void startArray(int size) throws IOException;
+
+		void startMap(int size) throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface Block {
+		void run() throws IOException;
+	}
+
+	private static class DataTreeBuilder implements DataSink {
+		private final List<Object> containers = new ArrayList<>();
+		private final List<String> keys = new ArrayList<>();
+		private String key;
+		private Object result;
+
+		@Override
+		public void endArray() {
+			end();
+		}
+
+		@Override
+		public void endMap() {
+			end();
+		}
+
+		@Override
+		public void key(String key) {
+			this.key = key;
+		}
+
+		@Override
+		public void scalar(Object value) {
+			add(value);
+		}
+
+		@Override
+		public void startArray(int size) {
+			start(new ArrayList<>(size));
+		}
+
+		@Override
+		public void startMap(int size) {
+			start(new LinkedHashMap<>());
+		}
+
+		@SuppressWarnings("unchecked")
+		private void add(Object value) {
+			int top = containers.size();
+			if(top == 0)
+				result = value;
+			else {
+				Object container = containers.get(top - 1);
+				if(container instanceof List<?>)
+					((List<Object>)container).add(value);
+				else
+					((Map<String,Object>)container).put(key, value);
+			}
+		}
+
+		private void end() {
+			int last = containers.size() - 1;
+			Object container = containers.remove(last);
+			key = keys.remove(last);
+			add(container);
+		}
+
+		private void start(Object container) {
+			containers.add(container);
+			keys.add(key);
+			key = null;
+		}
+	}
+
+	private static class JsonGeneratorSink implements DataSink {
+		private final JsonGenerator generator;
+
+		JsonGeneratorSink(JsonGenerator generator) {
+			this.generator = generator;
+		}
+
+		@Override
+		public void endArray() throws IOException {
+			generator.writeEndArray();
+		}
+
+		@Override
+		public void endMap() throws IOException {
+			generator.writeEndObject();
+		}
+
+		@Override
+		public void key(String key) throws IOException {
+			generator.writeFieldName(key);
+		}
+
+		@Override
+		public void scalar(Object value) throws IOException {
+			if(value == null)
+				generator.writeNull();
+			else if(value instanceof String)
+				generator.writeString((String)value);
+			else if(value instanceof Boolean)
+				generator.writeBoolean((Boolean)value);
+			else if(value instanceof Double || value instanceof Float)
+				generator.writeNumber(((Number)value).doubleValue());
+			else if(value instanceof BigInteger)
+				generator.writeNumber((BigInteger)value);
+			else if(value instanceof BigDecimal)
+				generator.writeNumber((BigDecimal)value);
+			else
+				generator.writeNumber(((Number)value).longValue());
+		}
+
+		@Override
+		public void startArray(int size) throws IOException {
+			generator.writeStartArray();
+		}
+
+		@Override
+		public void startMap(int size) throws IOException {
+			generator.writeStartObject();
+		}
+	}
+
+	private static class MessagePackerSink implements DataSink {
+		private final MessagePacker packer;
+
+		MessagePackerSink(MessagePacker packer) {
+			this.packer = packer;
+		}
+
+		@Override
+		public void endArray() {
+		}
+
+		@Override
+		public void endMap() {
+		}
+
+		@Override
+		public void key(String key) throws IOException {
+			packer.packString(key);
+		}
+
+		@Override
+		public void scalar(Object value) throws IOException {
+			if(value == null)
+				packer.packNil();
+			else if(value instanceof String)
+				packer.packString((String)value);
+			else if(value instanceof Boolean)
+				packer.packBoolean((Boolean)value);
+			else if(value instanceof Double || value instanceof Float)
+				packer.packDouble(((Number)value).doubleValue());
+			else if(value instanceof BigInteger)
+				packBigInteger((BigInteger)value);
+			else if(value instanceof BigDecimal)
+				// MsgPack has no decimal type and a double would silently lose precision
+				throw new SerializationException(format("Unable to pack BigDecimal %s. MsgPack has no decimal type", value));
+			else
+				packer.packLong(((Number)value).longValue());
+		}
+
+		@Override
+		public void startArray(int size) throws IOException {
+			packer.packArrayHeader(size);
+		}
+
+		@Override
+		public void startMap(int size) throws IOException {
+			packer.packMapHeader(size);
+		}
+
+		private void packBigInteger(BigInteger value) throws IOException {
+			try {
+				packer.packBigInteger(value);
+			} catch(IllegalArgumentException e) {
+				throw new SerializationException(format("Unable to pack BigInteger %s. It does not fit in 64 bits", value));
+			}
+		}
+	}
+
+	/**
+	 * An immutable path that shares its parent with the paths of all siblings. A path is only converted into
+	 * a JSON path when a value is found a second time.
+	 */
+	private static final class PathNode {
+		final PathNode parent;
+		final Object key;
+		final int depth;
+
+		PathNode(PathNode parent, Object key) {
+			this.parent = parent;
+			this.key = key;
+			this.depth = parent == null ? 0 : parent.depth + 1;
+		}
+
+		String toJsonPath() {
+			Object[] segments = new Object[depth];
+			for(PathNode node = this; node.parent != null; node = node.parent)
+				segments[node.depth - 1] = node.key;
+			return JsonPath.toJsonPath(Arrays.asList(segments));
+		}
+	}
+
+	private static final PathNode ROOT = new PathNode(null, null);
+
+	/**
+	 * Path segment used for hash keys that cannot be represented in a JSON path
+	 */
+	private static final Object COMPLEX_KEY = new Object();
+
 	private final Logger logger = LoggerFactory.getLogger(ToDataConverter.class);
 	private final boolean typeByReference;
 	private final boolean localReference;
@@ -36,7 +273,9 @@ public class ToDataConverter implements Converter {
 	private final boolean richData;
 	private final String messagePrefix;
 
+	private DataSink sink;
 	private List<Object> path;
+	private List<PathNode> pathNodes;
 	private Map<Object,Object> values;
 	private Map<Object,Boolean> recursiveLock;
 
@@ -49,9 +288,45 @@ public class ToDataConverter implements Converter {
 	}
 
 	public Object convert(Object value) {
+		DataTreeBuilder builder = new DataTreeBuilder();
+		try {
+			convert(value, builder);
+		} catch(IOException e) {
+			throw new PcoreException(e);
+		}
+		return builder.result;
+	}
+
+	/**
+	 * Converts the given <code>value</code> and writes the resulting <code>Data</code> to the given
+	 * <code>generator</code> without creating an intermediate tree.
+	 *
+	 * @param value the value to convert
+	 * @param generator the generator to write to
+	 * @throws IOException propagated from the generator
+	 */
+	public void convert(Object value, JsonGenerator generator) throws IOException {
+		convert(value, new JsonGeneratorSink(generator));
+	}
+
+	/**
+	 * Converts the given <code>value</code> and writes the resulting <code>Data</code> to the given
+	 * <code>packer</code> without creating an intermediate tree.
+	 *
+	 * @param value the value to convert
+	 * @param packer the packer to write to
+	 * @throws IOException propagated from the packer
+	 */
+	public void convert(Object value, MessagePacker packer) throws IOException {
+		convert(value, new MessagePackerSink(packer));
+	}
+
+	private void convert(Object value, DataSink sink) throws IOException {
+		this.sink = sink;
 		path = new ArrayList<>();
+		pathNodes = new ArrayList<>();
 		values = new IdentityHashMap<>();
-		return toData(value);
+		toData(value);
 	}
 
 	private String pathToString() {
@@ -62,54 +337,106 @@ public class ToDataConverter implements Converter {
 		return bld.toString();
 	}
 
-	@SuppressWarnings("unchecked")
-	private Object toData(Object value) {
-		if(value == null || scalarDataType().isInstance(value))
-			return value;
-
-		if(value instanceof Symbol)
-			return symbolAsString ? value.toString() : asMap(PCORE_TYPE_KEY, PCORE_TYPE_SYMBOL, PCORE_VALUE_KEY, value.toString());
-
-		if(value instanceof Default)
-			return singletonMap(PCORE_TYPE_KEY, PCORE_TYPE_DEFAULT);
-
-		if(value instanceof List<?>)
-			return process(value, () -> mapWithIndex((List<Object>)value, (Object v, Integer i) -> with(i, () -> toData(v))));
-
-		if(value instanceof Map<?, ?>) {
+	private void toData(Object value) throws IOException {
+		switch(ValueKind.of(value)) {
+		case UNDEF:
+		case STRING:
+		case NUMBER:
+		case BOOLEAN:
+			sink.scalar(value);
+			break;
+		case SYMBOL:
+			if(symbolAsString)
+				sink.scalar(value.toString());
+			else
+				typedValue(PCORE_TYPE_SYMBOL, value.toString());
+			break;
+		case DEFAULT:
+			sink.startMap(1);
+			sink.key(PCORE_TYPE_KEY);
+			sink.scalar(PCORE_TYPE_DEFAULT);
+			sink.endMap();
+			break;
+		case LIST:
+			List<?> list = (List<?>)value;
+			process(list, () -> {
+				sink.startArray(list.size());
+				int idx = 0;
+				for(Object v : list)
+					with(idx++, () -> toData(v));
+				sink.endArray();
+			});
+			break;
+		case MAP:
 			Map<?,?> mapValue = (Map<?,?>)value;
-			return process(mapValue, () ->
-					all(mapValue.keySet(), (key) -> key instanceof String)
-						? mapValues(mapValue, (Object key, Object v) -> with(key, () -> toData(v)))
-						: nonKeyKeyedHashToData((mapValue)));
+			process(mapValue, () -> {
+				if(all(mapValue.keySet(), (key) -> key instanceof String))
+					stringKeyedHashToData(mapValue);
+				else
+					nonKeyKeyedHashToData(mapValue);
+			});
+			break;
+		case SENSITIVE:
+			process(value, () -> {
+				sink.startMap(2);
+				sink.key(PCORE_TYPE_KEY);
+				sink.scalar(PCORE_TYPE_SENSITIVE);
+				sink.key(PCORE_VALUE_KEY);
+				toData(((Sensitive)value).unwrap());
+				sink.endMap();
+			});
+			break;
+		default:
+			unknownToData(value);
 		}
+	}
 
-		if(value instanceof Sensitive)
-			return process(value, () -> asMap(PCORE_TYPE_KEY, PCORE_TYPE_SENSITIVE, PCORE_VALUE_KEY, toData(((Sensitive)value).unwrap())));
-
-		return unknownToData(value);
+	private static boolean isScalarData(Object value) {
+		switch(ValueKind.of(value)) {
+		case UNDEF:
+		case STRING:
+		case NUMBER:
+		case BOOLEAN:
+			return true;
+		default:
+			return false;
+		}
 	}
 
-	private Object unknownToData(Object value) {
-		return richData ? valueToDataHash(value) : unknownToStringWithWarning(value);
+	private void unknownToData(Object value) throws IOException {
+		if(richData)
+			valueToDataHash(value);
+		else
+			sink.scalar(unknownToStringWithWarning(value));
 	}
 
-	private Object valueToDataHash(Object value) {
+	private void valueToDataHash(Object value) throws IOException {
 		AnyType pcoreType = value instanceof PuppetObject ? (AnyType)((PuppetObject)value)._pcoreType() : infer(value);
-		if(pcoreType instanceof RuntimeType)
-			return unknownToStringWithWarning(value);
+		if(pcoreType instanceof RuntimeType) {
+			sink.scalar(unknownToStringWithWarning(value));
+			return;
+		}
 
-		Object pcoreTv = pcoreTypeToData(pcoreType);
-		if(pcoreType.roundtripWithString())
-			return asMap(PCORE_TYPE_KEY, pcoreTv, PCORE_VALUE_KEY, StringConverter.singleton.convert(value));
+		if(pcoreType.roundtripWithString()) {
+			sink.startMap(2);
+			sink.key(PCORE_TYPE_KEY);
+			pcoreTypeToData(pcoreType);
+			sink.key(PCORE_VALUE_KEY);
+			sink.scalar(StringConverter.singleton.convert(value));
+			sink.endMap();
+			return;
+		}
 
 		if(value instanceof PuppetObjectWithHash) {
-			return process(value, () -> {
-				Map<Object,Object> result = new LinkedHashMap<>();
-				result.put(PCORE_TYPE_KEY, pcoreTv);
-				result.putAll((Map<?,?>)toData(((PuppetObjectWithHash)value)._pcoreInitHash()));
-				return result;
+			process(value, () -> {
+				Map<?,?> initHash = ((PuppetObjectWithHash)value)._pcoreInitHash();
+				sink.startMap(initHash.size() + 1);
+				sink.key(PCORE_TYPE_KEY);
+				pcoreTypeToData(pcoreType);
+				entriesToData(initHash);
+				sink.endMap();
 			});
+			return;
 		}
 
 		if(pcoreType instanceof ObjectType) {
@@ -117,35 +444,61 @@ public class ToDataConverter implements Converter {
 			Object[] args = ot.attributeValuesFor(value);
 			ParameterInfo pi = ot.parameterInfo();
 
-			return process(value, () -> {
-				Map<Object,Object> result = new LinkedHashMap<>();
+			process(value, () -> {
 				List<ObjectType.Attribute> attrs = pi.attributes;
-				result.put(PCORE_TYPE_KEY, pcoreTv);
+				sink.startMap(args.length + 1);
+				sink.key(PCORE_TYPE_KEY);
+				pcoreTypeToData(pcoreType);
 				for(int idx = 0; idx < args.length; ++idx) {
 					String k = attrs.get(idx).name;
 					Object v = args[idx];
-					with(k, () -> result.put(k, toData(v)));
+					sink.key(k);
+					with(k, () -> toData(v));
 				}
-				return result;
+				sink.endMap();
 			});
+			return;
 		}
 
 		throw new SerializationException(format("No Puppet Type found for %s", value.getClass().getName()));
 	}
 
-	private Object pcoreTypeToData(AnyType pcoreType) {
+	private void pcoreTypeToData(AnyType pcoreType) throws IOException {
 		String typeName = pcoreType.name();
-		return (typeByReference || typeName.startsWith(("Pcore::"))) ? typeName : with(PCORE_TYPE_KEY, () -> toData(pcoreType));
+		if(typeByReference || typeName.startsWith(("Pcore::")))
+			sink.scalar(typeName);
+		else
+			with(PCORE_TYPE_KEY, () -> toData(pcoreType));
 	}
 
-	private Object nonKeyKeyedHashToData(Map<?, ?> hash) {
-		if(richData)
-			return toKeyExtendedHash(hash);
+	private void entriesToData(Map<?, ?> hash) throws IOException {
+		for(Entry<?, ?> e : hash.entrySet()) {
+			Object key = e.getKey();
+			sink.key((String)key);
+			with(key, () -> toData(e.getValue()));
+		}
+	}
 
-		return map(hash, (Object k, Object v) -> {
-			String key = symbolAsString && k instanceof Symbol ? k.toString() : unknownKeyToStringWithWarning(k);
-			return entry(key, with(key, () -> toData(v)));
-		});
+	private void stringKeyedHashToData(Map<?, ?> hash) throws IOException {
+		sink.startMap(hash.size());
+		entriesToData(hash);
+		sink.endMap();
+	}
+
+	private void nonKeyKeyedHashToData(Map<?, ?> hash) throws IOException {
+		if(richData) {
+			toKeyExtendedHash(hash);
+			return;
+		}
+
+		// Different keys may produce the same string. They are merged before streaming so that all sinks
+		// see the same entries as a tree would, i.e. the first position and the last value.
+		Map<String, Object> stringKeyed = new LinkedHashMap<>();
+		for(Entry<?, ?> e : hash.entrySet()) {
+			Object k = e.getKey();
+			stringKeyed.put(symbolAsString && k instanceof Symbol ? k.toString() : unknownKeyToStringWithWarning(k), e.getValue());
+		}
+		stringKeyedHashToData(stringKeyed);
 	}
 
 	private String unknownToStringWithWarning(Object value) {
@@ -162,50 +515,89 @@ public class ToDataConverter implements Converter {
 		return str;
 	}
 
-	private Map<Object, Object> toKeyExtendedHash(Map<?, ?> hash) {
-		List<Object> pairs = new ArrayList<>();
+	private void toKeyExtendedHash(Map<?, ?> hash) throws IOException {
+		sink.startMap(2);
+		sink.key(PCORE_TYPE_KEY);
+		sink.scalar(PCORE_TYPE_HASH);
+		sink.key(PCORE_VALUE_KEY);
+		sink.startArray(hash.size() * 2);
 		for(Entry<?, ?> e : hash.entrySet()) {
-			Object key = toData(e.getKey());
-			pairs.add(key);
-			pairs.add(with(key, () -> toData(e.getValue())));
+			Object key = e.getKey();
+			toData(key);
+			with(isScalarData(key) ? key : COMPLEX_KEY, () -> toData(e.getValue()));
 		}
-		return asMap(PCORE_TYPE_KEY, PCORE_TYPE_HASH, PCORE_VALUE_KEY, pairs);
+		sink.endArray();
+		sink.endMap();
+	}
+
+	private void typedValue(String typeName, String value) throws IOException {
+		sink.startMap(2);
+		sink.key(PCORE_TYPE_KEY);
+		sink.scalar(typeName);
+		sink.key(PCORE_VALUE_KEY);
+		sink.scalar(value);
+		sink.endMap();
 	}
 
-	private Object process(Object value, Supplier<Object> block) {
-		if(!localReference)
-			return withRecursionGuard(value, block);
+	private void process(Object value, Block block) throws IOException {
+		if(!localReference) {
+			withRecursionGuard(value, block);
+			return;
+		}
 
 		Object ref = values.get(value);
 		if(ref == null) {
-			values.put(value, new ArrayList<>(path));
-			return block.get();
+			values.put(value, currentPathNode());
+			block.run();
+			return;
 		}
 
-		if(ref instanceof Map<?,?>)
-			return ref;
-
-		String jsonRef = JsonPath.toJsonPath((List<?>)ref);
-		if(jsonRef == null)
+		String jsonRef = ref instanceof String ? (String)ref : ((PathNode)ref).toJsonPath();
+		if(jsonRef == null) {
 			// Complex key and hence no way to reference the prior value. The value must therefore be
-      // duplicated which in turn introduces a risk for endless recursion in case of self
-      // referencing structures
-			return withRecursionGuard(value, block);
+			// duplicated which in turn introduces a risk for endless recursion in case of self
+			// referencing structures
+			withRecursionGuard(value, block);
+			return;
+		}
 
-		Map<String, Object> refMap = asMap(PCORE_TYPE_KEY, PCORE_LOCAL_REF_SYMBOL, PCORE_VALUE_KEY, jsonRef);
-		values.put(value, refMap);
-		return refMap;
+		values.put(value, jsonRef);
+		typedValue(PCORE_LOCAL_REF_SYMBOL, jsonRef);
 	}
 
+	/**
+	 * Returns the node for the current path. Nodes are created on demand and reused by all values that
+	 * are processed below the same container.
+	 */
+	private PathNode currentPathNode() {
+		int top = path.size();
+		int idx = top;
+		PathNode node = ROOT;
+		while(idx > 0) {
+			PathNode parent = pathNodes.get(idx - 1);
+			if(parent != null) {
+				node = parent;
+				break;
+			}
+			--idx;
+		}
+		for(; idx < top; ++idx) {
+			node = new PathNode(node, path.get(idx));
+			pathNodes.set(idx, node);
+		}
+		return node;
+	}
 
-	private Object with(Object key, Supplier<Object> block) {
+	private void with(Object key, Block block) throws IOException {
 		path.add(key);
-		Object value = block.get();
-		path.remove(path.size() - 1);
-		return value;
+		pathNodes.add(null);
+		block.run();
+		int last = path.size() - 1;
+		path.remove(last);
+		pathNodes.remove(last);
 	}
 
-	private Object withRecursionGuard(Object value, Supplier<Object> block) {
+	private void withRecursionGuard(Object value, Block block) throws IOException {
 		if(recursiveLock != null) {
 			if(recursiveLock.put(value, Boolean.TRUE) == Boolean.TRUE)
 				throw new SerializationException(format("Endless recursion when serializing instance of %s", value.getClass().getName()));
@@ -213,8 +605,7 @@ public class ToDataConverter implements Converter {
 			recursiveLock = new IdentityHashMap<>();
 			recursiveLock.put(value, Boolean.TRUE);
 		}
-		Object result = block.get();
+		block.run();
 		recursiveLock.remove(value);
-		return result;
 	}
 }
@@ -0,0 +1,100 @@
+package com.puppet.pcore.impl.serialization;
+
+import com.puppet.pcore.Binary;
+import com.puppet.pcore.Default;
+import com.puppet.pcore.Sensitive;
+import com.puppet.pcore.Symbol;
+import com.puppet.pcore.impl.serialization.extension.*;
+import com.puppet.pcore.impl.types.TypeReferenceType;
+import com.puppet.pcore.regex.Regexp;
+import com.puppet.pcore.semver.Version;
+import com.puppet.pcore.semver.VersionRange;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classification of the values that are converted, written, or read by the serialization classes. The kind
+ * of a class is computed once so that hot loops can switch on the kind instead of performing a sequence
+ * of <code>instanceof</code> checks.
+ */
+enum ValueKind {
+	UNDEF,
+	STRING,
+	NUMBER,
+	BOOLEAN,
+	DEFAULT,
+	SYMBOL,
+	/** Values that are written as a single extension, i.e. Regexp, Version, VersionRange, Duration, Instant, Binary, and TypeReference */
+	RICH_SCALAR,
+	LIST,
+	MAP,
+	SENSITIVE,
+	TABULATION,
+	ARRAY_START,
+	MAP_START,
+	SENSITIVE_START,
+	PCORE_OBJECT_START,
+	OBJECT_START,
+	CHUNKED_START,
+	/** Other extension values that must not be tabulated */
+	NOT_TABULATED,
+	OBJECT;
+
+	private static final ClassValue<ValueKind> kinds = new ClassValue<ValueKind>() {
+		@Override
+		protected ValueKind computeValue(Class<?> c) {
+			return classify(c);
+		}
+	};
+
+	static ValueKind of(Object value) {
+		return value == null ? UNDEF : kinds.get(value.getClass());
+	}
+
+	private static ValueKind classify(Class<?> c) {
+		if(String.class == c)
+			return STRING;
+		if(Number.class.isAssignableFrom(c))
+			return NUMBER;
+		if(Boolean.class == c)
+			return BOOLEAN;
+		if(Default.class.isAssignableFrom(c))
+			return DEFAULT;
+		if(Symbol.class.isAssignableFrom(c))
+			return SYMBOL;
+		if(Regexp.class.isAssignableFrom(c)
+				|| Version.class.isAssignableFrom(c)
+				|| VersionRange.class.isAssignableFrom(c)
+				|| Duration.class.isAssignableFrom(c)
+				|| Instant.class.isAssignableFrom(c)
+				|| Binary.class.isAssignableFrom(c)
+				|| TypeReferenceType.class.isAssignableFrom(c))
+			return RICH_SCALAR;
+		if(List.class.isAssignableFrom(c))
+			return LIST;
+		if(Map.class.isAssignableFrom(c))
+			return MAP;
+		if(Sensitive.class.isAssignableFrom(c))
+			return SENSITIVE;
+		if(Tabulation.class.isAssignableFrom(c))
+			return TABULATION;
+		if(ArrayStart.class.isAssignableFrom(c))
+			return ARRAY_START;
+		if(MapStart.class.isAssignableFrom(c))
+			return MAP_START;
+		if(SensitiveStart.class.isAssignableFrom(c))
+			return SENSITIVE_START;
+		if(PcoreObjectStart.class.isAssignableFrom(c))
+			return PCORE_OBJECT_START;
+		if(ObjectStart.class.isAssignableFrom(c))
+			return OBJECT_START;
+		if(ChunkedStart.class.isAssignableFrom(c))
+			return CHUNKED_START;
+		if(NotTabulated.class.isAssignableFrom(c))
+			return NOT_TABULATED;
+		return OBJECT;
+	}
+}
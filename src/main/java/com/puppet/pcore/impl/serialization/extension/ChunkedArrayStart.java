@@ -0,0 +1,15 @@
+package com.puppet.pcore.impl.serialization.extension;
+
+public class ChunkedArrayStart extends ChunkedStart {
+	public ChunkedArrayStart(int size, int chunkCount) {
+		super(size, chunkCount);
+	}
+
+	public boolean equals(Object o) {
+		return o instanceof ChunkedArrayStart && size == ((ChunkedArrayStart)o).size && chunkCount == ((ChunkedArrayStart)o).chunkCount;
+	}
+
+	public int hashCode() {
+		return size * 37 + chunkCount;
+	}
+}
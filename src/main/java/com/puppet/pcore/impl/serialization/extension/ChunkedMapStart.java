@@ -0,0 +1,15 @@
+package com.puppet.pcore.impl.serialization.extension;
+
+public class ChunkedMapStart extends ChunkedStart {
+	public ChunkedMapStart(int size, int chunkCount) {
+		super(size, chunkCount);
+	}
+
+	public boolean equals(Object o) {
+		return o instanceof ChunkedMapStart && size == ((ChunkedMapStart)o).size && chunkCount == ((ChunkedMapStart)o).chunkCount;
+	}
+
+	public int hashCode() {
+		return size * 41 + chunkCount;
+	}
+}
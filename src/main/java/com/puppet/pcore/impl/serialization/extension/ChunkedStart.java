@@ -0,0 +1,26 @@
+package com.puppet.pcore.impl.serialization.extension;
+
+/**
+ * Starts a List or Hash whose elements have been divided into chunks. Each chunk is a
+ * {@link com.puppet.pcore.Binary} that contains a self contained serialization of the
+ * number of elements in the chunk followed by the elements.
+ */
+public abstract class ChunkedStart implements NotTabulated, SequenceStart {
+	public final int size;
+	public final int chunkCount;
+
+	ChunkedStart(int size, int chunkCount) {
+		this.size = size;
+		this.chunkCount = chunkCount;
+	}
+
+	/**
+	 * Sequence size is the number of chunks since each chunk is one value
+	 *
+	 * @return the chunk count
+	 */
+	@Override
+	public int sequenceSize() {
+		return chunkCount;
+	}
+}
@@ -15,6 +15,8 @@ public class Numbers {
 	public static final byte PCORE_OBJECT_START = 0x12;
 	public static final byte OBJECT_START = 0x13;
 	public static final byte SENSITIVE_START = 0x14;
+	public static final byte CHUNKED_ARRAY_START = 0x15;
+	public static final byte CHUNKED_MAP_START = 0x16;
 
 	// 0x20 - 0x2f reserved for special extension objects
 	public static final byte DEFAULT = 0x20;
@@ -1,7 +1,9 @@
 package com.puppet.pcore.impl.serialization.json;
 
+import com.fasterxml.jackson.core.Base64Variants;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.puppet.pcore.Binary;
 import com.puppet.pcore.impl.Polymorphic;
 import com.puppet.pcore.impl.serialization.ExtensionAwarePacker;
 import com.puppet.pcore.impl.serialization.PayloadWriterFunction;
@@ -78,6 +80,13 @@ public class JsonPacker extends Polymorphic<Void> implements ExtensionAwarePacke
 		}
 	}
 
+	@Override
+	public void writeBytes(Binary val) throws IOException {
+		// Encoded straight into the generator output, i.e. the base64 string is never created
+		generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, val.asInputStream(), val.length());
+		afterElement();
+	}
+
 	@Override
 	protected DispatchMap getDispatchMap() {
 		return dispatchMap;
@@ -4,6 +4,8 @@ import com.puppet.pcore.impl.serialization.AbstractReader;
 
 import java.util.List;
 
+import static com.puppet.pcore.impl.serialization.extension.Numbers.BASE64;
+
 public class JsonReader extends AbstractReader {
 	@Override
 	public void initialize(List<?> data) {
@@ -12,5 +14,8 @@ public class JsonReader extends AbstractReader {
 
 	protected JsonReader(JsonUnpacker unpacker) {
 		super(unpacker);
+
+		// The unpacker decodes the base64 text from its parser buffer, so no string is created for it
+		unpacker.registerType(BASE64, data -> unpacker.readBase64());
 	}
 }
@@ -1,10 +1,14 @@
 package com.puppet.pcore.impl.serialization.json;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.puppet.pcore.Binary;
+import com.puppet.pcore.Binary.StrictBase64Decoder;
 import com.puppet.pcore.impl.serialization.ExtensionAwareUnpacker;
 import com.puppet.pcore.impl.serialization.PayloadReaderFunction;
 import com.puppet.pcore.serialization.SerializationException;
 
-import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
@@ -12,13 +16,17 @@ import java.util.*;
 import static com.puppet.pcore.impl.serialization.json.JsonSerializationFactory.mapper;
 import static java.lang.String.format;
 
+/**
+ * Reads the values of a JSON array one token at a time. A nested array is an extension where the first
+ * element is the extension number and the remaining elements are its payload.
+ */
 public class JsonUnpacker implements ExtensionAwareUnpacker {
 
-	private final Stack<Iterator<?>> etorStack = new Stack<>();
 	private final Map<Byte,PayloadReaderFunction<?>> extensionMap = new HashMap<>();
+	private JsonParser parser;
 
 	JsonUnpacker(InputStream in) throws IOException {
-		this(mapper.readValue(new BufferedInputStream(in), List.class));
+		start(mapper.createParser(in));
 	}
 
 	JsonUnpacker(List<?> values) {
@@ -26,37 +34,33 @@ public class JsonUnpacker implements ExtensionAwareUnpacker {
 	}
 
 	public void initialize(List<?> values) {
-		etorStack.push(values.iterator());
+		try {
+			start(mapper.treeAsTokens(mapper.valueToTree(values)));
+		} catch(IOException e) {
+			throw new SerializationException(e);
+		}
 	}
 
 	@Override
 	public Object read() throws IOException {
-		Object obj;
-		for(; ; ) {
-			Iterator<?> etor = etorStack.lastElement();
-			if(etor.hasNext()) {
-				obj = etor.next();
-				if(obj instanceof Integer)
-					obj = ((Integer)obj).longValue();
-				else if(obj instanceof Float)
-					obj = ((Float)obj).doubleValue();
-				break;
-			}
-			etorStack.pop();
-		}
+		return value(nextValueToken());
+	}
 
-		if(obj instanceof List<?>) {
-			Iterator<?> extensionEtor = ((List<?>)obj).iterator();
-			if(!extensionEtor.hasNext())
-				throw new SerializationException("Unexpected EOF while reading extended data");
-			etorStack.push(extensionEtor);
-			byte extNo = (byte)readInt();
-			PayloadReaderFunction<?> payloadReaderFunction = extensionMap.get(extNo);
-			if(payloadReaderFunction == null)
-				throw new SerializationException(format("Invalid input. %d is not a valid extension number", extNo));
-			obj = payloadReaderFunction.apply(null);
-		}
-		return obj;
+	/**
+	 * Decodes a base64 string with the rules of {@link Binary#fromBase64Strict(String)}. The text is passed
+	 * from the parser buffer to the decoder, i.e. no string is created.
+	 *
+	 * @return the decoded binary
+	 * @throws IllegalArgumentException if the string is not valid base64
+	 */
+	public Binary readBase64() throws IOException {
+		JsonToken token = nextValueToken();
+		if(token != JsonToken.VALUE_STRING)
+			throw new SerializationException(format("Invalid input. Expected string, got '%s'", token));
+
+		StrictBase64Decoder decoder = new StrictBase64Decoder(parser.getTextLength());
+		parser.getText(decoder);
+		return decoder.toBinary();
 	}
 
 	@Override
@@ -95,4 +99,62 @@ public class JsonUnpacker implements ExtensionAwareUnpacker {
 	public void registerType(byte extensionNumber, PayloadReaderFunction<?> payloadReaderFunction) {
 		extensionMap.put(extensionNumber, payloadReaderFunction);
 	}
+
+	private JsonToken nextValueToken() throws IOException {
+		JsonToken token;
+
+		// An end of array terminates an extension whose payload has been read
+		do
+			token = parser.nextToken();
+		while(token == JsonToken.END_ARRAY);
+
+		if(token == null)
+			throw new EOFException();
+		return token;
+	}
+
+	private Object readExtension() throws IOException {
+		JsonToken token = parser.nextToken();
+		if(token == null || token == JsonToken.END_ARRAY)
+			throw new SerializationException("Unexpected EOF while reading extended data");
+
+		Object v = value(token);
+		if(!(v instanceof Number))
+			throw new SerializationException(format("Invalid input. Expected integer, got '%s'", v == null ? "null" : v.getClass().getName()));
+
+		byte extNo = ((Number)v).byteValue();
+		PayloadReaderFunction<?> payloadReaderFunction = extensionMap.get(extNo);
+		if(payloadReaderFunction == null)
+			throw new SerializationException(format("Invalid input. %d is not a valid extension number", extNo));
+		return payloadReaderFunction.apply(null);
+	}
+
+	private void start(JsonParser parser) throws IOException {
+		if(parser.nextToken() != JsonToken.START_ARRAY)
+			throw new SerializationException("Invalid input. Expected a JSON array");
+		this.parser = parser;
+	}
+
+	private Object value(JsonToken token) throws IOException {
+		switch(token) {
+		case START_ARRAY:
+			return readExtension();
+		case START_OBJECT:
+			return parser.readValueAs(Map.class);
+		case VALUE_STRING:
+			return parser.getText();
+		case VALUE_NUMBER_INT:
+			return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER ? parser.getBigIntegerValue() : (Object)parser.getLongValue();
+		case VALUE_NUMBER_FLOAT:
+			return parser.getDoubleValue();
+		case VALUE_TRUE:
+			return Boolean.TRUE;
+		case VALUE_FALSE:
+			return Boolean.FALSE;
+		case VALUE_NULL:
+			return null;
+		default:
+			throw new SerializationException(format("Invalid input. Unexpected %s", token));
+		}
+	}
 }
@@ -1,19 +1,26 @@
 package com.puppet.pcore.impl.serialization.msgpack;
 
+import com.puppet.pcore.Binary;
 import com.puppet.pcore.impl.serialization.AbstractReader;
 import com.puppet.pcore.impl.serialization.ExtensionAwareUnpacker;
 import com.puppet.pcore.impl.serialization.IOFunction;
+import com.puppet.pcore.serialization.SerializationException;
 import org.msgpack.core.MessagePack;
 import org.msgpack.core.buffer.ArrayBufferInput;
 
 import java.io.IOException;
 
+import static com.puppet.pcore.impl.serialization.extension.Numbers.BINARY;
+
 public class MsgPackReader extends AbstractReader {
 	private final ArrayBufferInput buffer = new ArrayBufferInput(new byte[0]);
 	private final MsgUnpacker extensionUnpacker = new MsgUnpacker(MessagePack.newDefaultUnpacker(buffer));
 
 	protected MsgPackReader(ExtensionAwareUnpacker unpacker) {
 		super(unpacker);
+
+		// The payload array is owned by this reader, so the bytes can be wrapped where they are
+		unpacker.registerType(BINARY, MsgPackReader::readBinary);
 	}
 
 	@Override
@@ -21,4 +28,31 @@ public class MsgPackReader extends AbstractReader {
 		buffer.reset(data);
 		return block.apply(extensionUnpacker);
 	}
+
+	// The payload of a BINARY extension is a msgpack bin header followed by the bytes
+	private static Binary readBinary(byte[] data) {
+		int start;
+		long len;
+		switch(data.length > 0 ? data[0] : 0) {
+		case MessagePack.Code.BIN8:
+			start = 2;
+			len = data.length >= start ? data[1] & 0xff : -1;
+			break;
+		case MessagePack.Code.BIN16:
+			start = 3;
+			len = data.length >= start ? (data[1] & 0xff) << 8 | data[2] & 0xff : -1;
+			break;
+		case MessagePack.Code.BIN32:
+			start = 5;
+			len = data.length >= start
+					? (long)(data[1] & 0xff) << 24 | (data[2] & 0xff) << 16 | (data[3] & 0xff) << 8 | data[4] & 0xff
+					: -1;
+			break;
+		default:
+			throw new SerializationException("Invalid input. Binary payload does not start with a bin header");
+		}
+		if(len < 0 || len > data.length - start)
+			throw new SerializationException("Invalid input. Binary payload is truncated");
+		return Binary.wrap(data, start, (int)len);
+	}
 }
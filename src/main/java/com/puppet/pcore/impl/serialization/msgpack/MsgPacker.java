@@ -1,5 +1,6 @@
 package com.puppet.pcore.impl.serialization.msgpack;
 
+import com.puppet.pcore.Binary;
 import com.puppet.pcore.impl.Polymorphic;
 import com.puppet.pcore.impl.serialization.ExtensionAwarePacker;
 import com.puppet.pcore.impl.serialization.PayloadWriterFunction;
@@ -8,6 +9,7 @@ import com.puppet.pcore.impl.serialization.extension.Extension;
 import org.msgpack.core.MessagePacker;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,6 +19,19 @@ public class MsgPacker extends Polymorphic<Void> implements ExtensionAwarePacker
 	final MessagePacker packer;
 	private final Map<Class<?>,Extension<?>> extensionMap = new HashMap<>();
 
+	// Passes the bytes of a Binary straight to the packer so that they need not be copied into an array first
+	private final OutputStream payloadStream = new OutputStream() {
+		@Override
+		public void write(int b) throws IOException {
+			packer.writePayload(new byte[] { (byte)b });
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			packer.writePayload(b, off, len);
+		}
+	};
+
 	public MsgPacker(MessagePacker packer) {
 		this.packer = packer;
 	}
@@ -63,6 +78,12 @@ public class MsgPacker extends Polymorphic<Void> implements ExtensionAwarePacker
 		}
 	}
 
+	@Override
+	public void writeBytes(Binary val) throws IOException {
+		packer.packBinaryHeader(val.length());
+		val.writeTo(payloadStream);
+	}
+
 	@Override
 	protected DispatchMap getDispatchMap() {
 		return dispatchMap;
@@ -29,6 +29,9 @@ public class AnyType extends ModelObject implements Type, PuppetObject {
 	static final AnyType DEFAULT = new AnyType();
 	private static ObjectType ptype;
 
+	// Lazily computed result of toString(). Types are immutable once their string form is cacheable
+	private String canonicalString;
+
 	AnyType() {
 	}
 
@@ -48,8 +51,9 @@ public class AnyType extends ModelObject implements Type, PuppetObject {
 		if(nullOK && actual == null || isInstance(actual))
 			return actual;
 
-		throw new TypeAssertionException(identifier.get() + ' ' +
-				TypeMismatchDescriber.SINGLETON.describeMismatch(this, inferSet(actual)));
+		String id = identifier.get();
+		Supplier<String> description = TypeMismatchDescriber.SINGLETON.instanceMismatchDescription(this, actual);
+		throw new TypeAssertionException(() -> id + ' ' + description.get());
 	}
 
 	public <T> T assertInstanceOf(T actual, Supplier<String> identifier) {
@@ -166,9 +170,21 @@ public class AnyType extends ModelObject implements Type, PuppetObject {
 
 	@Override
 	public final String toString() {
-		StringBuilder bld = new StringBuilder();
-		buildString(bld, false, false);
-		return bld.toString();
+		String str = canonicalString;
+		if(str == null) {
+			StringBuilder bld = new StringBuilder();
+			TypeFormatter tf = new TypeFormatter(bld, -1, 0, false, false);
+			tf.format(this);
+			str = bld.toString();
+			if(tf.isCacheable())
+				canonicalString = str;
+		}
+		return str;
+	}
+
+	@Override
+	public ValidationResult validate(Object o) {
+		return TypeMismatchDescriber.SINGLETON.validate(this, o);
 	}
 
 	static ObjectType registerPcoreType(PcoreImpl pcore) {
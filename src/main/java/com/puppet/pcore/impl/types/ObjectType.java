@@ -456,21 +456,14 @@ public class ObjectType extends MetaType implements PuppetObjectWithHash {
 		FactoryDispatcher fd = ir.creatorFor(this);
 		if(fd == null) {
 			FactoryDispatcher<DynamicObjectImpl> dynFd = dispatcher(
-					constructor(args -> new DynamicObjectImpl(this, args.toArray()), parameterInfo().parametersType()),
-					hashConstructor(args -> {
-						Map<String,Object> hash = (Map<String,Object>)args.get(0);
-						List<Object> argv = new ArrayList<>(args.size());
-						for(ObjectType.Attribute attr : parameterInfo().attributes) {
-							if(hash.containsKey(attr.name))
-								argv.add(hash.get(attr.name));
-							else {
-								if(!attr.hasValue())
-									throw new IllegalArgumentException(String.format("no value provided for required %s", attr.label()));
-								argv.add(attr.value());
-							}
-						}
-						return new DynamicObjectImpl(this, argv.toArray(new Object[0]));
-					}, initType())
+					constructor(
+							args -> new DynamicObjectImpl(this, args.toArray()),
+							args -> DynamicObjectImpl.trusted(this, args.toArray()),
+							parameterInfo().parametersType()),
+					hashConstructor(
+							args -> new DynamicObjectImpl(this, hashToArguments((Map<String,Object>)args.get(0))),
+							args -> DynamicObjectImpl.trusted(this, hashToArguments((Map<String,Object>)args.get(0))),
+							initType())
 			);
 
 			ir.registerImplementation(this, dynFd, DynamicObjectImpl::getAttributes);
@@ -929,6 +922,22 @@ public class ObjectType extends MetaType implements PuppetObjectWithHash {
 		return false;
 	}
 
+	private Object[] hashToArguments(Map<String,Object> hash) {
+		List<Attribute> attrs = parameterInfo().attributes;
+		Object[] argv = new Object[attrs.size()];
+		int idx = 0;
+		for(ObjectType.Attribute attr : attrs) {
+			if(hash.containsKey(attr.name))
+				argv[idx++] = hash.get(attr.name);
+			else {
+				if(!attr.hasValue())
+					throw new IllegalArgumentException(String.format("no value provided for required %s", attr.label()));
+				argv[idx++] = attr.value();
+			}
+		}
+		return argv;
+	}
+
 	@SuppressWarnings("unchecked")
 	private <T extends AnnotatedMember> Map<String,T> members(boolean includeParent, MemberType memberType) {
 		if(includeParent || memberType == MemberType.all) {
@@ -12,6 +12,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 
 import static com.puppet.pcore.impl.Helpers.all;
 import static com.puppet.pcore.impl.Helpers.map;
@@ -21,10 +22,21 @@ import static com.puppet.pcore.impl.types.TypeFactory.*;
 @SuppressWarnings("unused")
 class TypeCalculator extends Polymorphic<AnyType> {
 
-	static final TypeCalculator SINGLETON = new TypeCalculator();
+	/**
+	 * Number of elements that are inspected by {@link TypeFactory#inferSampled(Object)}
+	 */
+	static final int DEFAULT_SAMPLE_SIZE = 100;
+
+	static final TypeCalculator SINGLETON = new TypeCalculator(0);
+	static final TypeCalculator SAMPLING = new TypeCalculator(DEFAULT_SAMPLE_SIZE);
 	private static final DispatchMap dispatchMap = initPolymorphicDispatch(TypeCalculator.class, "_infer");
 
-	private TypeCalculator() {
+	// Zero when all elements are inferred. Otherwise the number of elements inferred from the start of a collection
+	// with at most the same number of elements again inferred from the remainder.
+	private final int sampleSize;
+
+	TypeCalculator(int sampleSize) {
+		this.sampleSize = sampleSize;
 	}
 
 	@Override
@@ -141,7 +153,17 @@ class TypeCalculator extends Polymorphic<AnyType> {
 	}
 
 	AnyType inferAndReduceType(Collection<?> objects) {
-		return reduceType(map(objects, this::infer));
+		if(sampleSize > 0 && objects.size() > 2 * sampleSize)
+			return inferAndReduceSample(objects);
+
+		AnyType result = unitType();
+		for(Object o : objects) {
+			result = result.common(infer(o));
+			if(isAny(result))
+				// Nothing is more general
+				break;
+		}
+		return result;
 	}
 
 	AnyType inferSet(Object o) {
@@ -165,6 +187,39 @@ class TypeCalculator extends Polymorphic<AnyType> {
 		return reduce(types, unitType(), AnyType::common);
 	}
 
+	// Infers the first sampleSize elements and then elements picked with a stride so that at most sampleSize
+	// more are inferred. Stops early when the result is Data since the remaining elements are unlikely to
+	// generalize it further.
+	private AnyType inferAndReduceSample(Collection<?> objects) {
+		int size = objects.size();
+		int stride = (size - 1) / sampleSize;
+		AnyType data = dataType();
+		AnyType result = unitType();
+		if(objects instanceof List<?> && objects instanceof RandomAccess) {
+			List<?> list = (List<?>)objects;
+			for(int idx = 0; idx < size; idx += idx < sampleSize ? 1 : stride) {
+				result = result.common(infer(list.get(idx)));
+				if(isAny(result) || result.equals(data))
+					break;
+			}
+		} else {
+			int idx = 0;
+			for(Object o : objects) {
+				if(idx < sampleSize || (idx - sampleSize) % stride == 0) {
+					result = result.common(infer(o));
+					if(isAny(result) || result.equals(data))
+						break;
+				}
+				++idx;
+			}
+		}
+		return result;
+	}
+
+	private static boolean isAny(AnyType t) {
+		return t.getClass() == AnyType.class;
+	}
+
 	private IntegerType sizeAsType(Collection<?> c) {
 		long sz = c.size();
 		return integerType(sz, sz);
@@ -307,6 +307,33 @@ public class TypeFactory {
 		return TypeCalculator.SINGLETON.infer(value);
 	}
 
+	/**
+	 * Infers the type of the given value using samples of large collections. A collection with more than twice
+	 * the sample size elements has its element type inferred from the first elements and from elements spread
+	 * evenly over the rest. The result is approximate and intended for logging and diagnostics. It might not
+	 * be assignable from all elements.
+	 *
+	 * @param value the value
+	 * @return the inferred type
+	 */
+	public static AnyType inferSampled(Object value) {
+		return TypeCalculator.SAMPLING.infer(value);
+	}
+
+	/**
+	 * Infers the type of the given value using at most <code>2 * sampleSize</code> elements from each collection.
+	 *
+	 * @param value      the value
+	 * @param sampleSize number of elements to infer from the start of a collection
+	 * @return the inferred type
+	 * @see #inferSampled(Object)
+	 */
+	public static AnyType inferSampled(Object value, int sampleSize) {
+		if(sampleSize <= 0)
+			throw new IllegalArgumentException("sample size must be greater than zero");
+		return new TypeCalculator(sampleSize).infer(value);
+	}
+
 	public static AnyType inferSet(Object value) {
 		return TypeCalculator.SINGLETON.inferSet(value);
 	}
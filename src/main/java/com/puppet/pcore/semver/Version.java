@@ -1,72 +1,83 @@
 package com.puppet.pcore.semver;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A class that implements a <a href="http://semver.org/spec/v1.0.0.html">Semantic Versioning 1.0.0</a>.
  */
 public class Version implements Comparable<Version>, Serializable {
-	public static final Version MAX = new Version(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, null, null);
+	public static final Version MAX = new Version(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, null, null, null);
 	public static final List<Comparable<?>> MIN_PRE_RELEASE = Collections.emptyList();
-	public static final Version MIN = new Version(0, 0, 0, MIN_PRE_RELEASE, null);
+	public static final Version MIN = new Version(0, 0, 0, new int[0], new String[0], null);
 
-	private static final String PR_PART = "(?:0|[1-9][0-9]*|[0-9]*[A-Za-z-]+[0-9A-Za-z-]*)";
-	private static final String PR_PARTS = PR_PART + "(?:\\." + PR_PART + ")*";
-	private static final String PART = "[0-9A-Za-z-]+";
-	private static final String PARTS = PART + "(?:\\." + PART + ")*";
-	private static final String PRERELEASE = "(?:-(" + PR_PARTS + "))?";
-	private static final String BUILD = "(?:\\+(" + PARTS + "))?";
-	private static final String QUALIFIER = PRERELEASE + BUILD;
-	private static final String NR = "(0|[1-9][0-9]*)";
-
-	private static final Pattern PR_PARTS_PATTERN = Pattern.compile("\\A" + PR_PARTS + "\\z");
-	private static final Pattern PARTS_PATTERN = Pattern.compile("\\A" + PARTS + "\\z");
-	private static final Pattern VERSION_PATTERN = Pattern.compile("\\A" + NR + "\\." + NR + "\\." + NR + QUALIFIER + "\\z");
+	// Number of bits used for each of major, minor, and patch in the packed triplet
+	private static final int PACKED_BITS = 21;
+	private static final long UNPACKED = -1L;
 
 	private static final WeakCache<Version> instanceCache = new WeakCache<>();
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
 	private final int major;
 	private final int minor;
 	private final int patch;
-	private final List<Comparable<?>> preRelease;
-	private final List<Comparable<?>> build;
+
+	// major, minor, and patch packed into one long that compares like the triplet, or UNPACKED when one of
+	// them is too large to fit
+	private final long triplet;
+
+	// Pre-release identifiers. A numeric identifier has a null entry in preReleaseStrings and its value in
+	// preReleaseNumbers. Both are null for a stable version
+	private final int[] preReleaseNumbers;
+	private final String[] preReleaseStrings;
+	private final String build;
+	private final int hash;
 
 	public enum Level { Patch, Minor, Major }
 
-	private Version(int major, int minor, int patch, List<Comparable<?>> preRelease, List<Comparable<?>> build) {
+	private Version(int major, int minor, int patch, int[] preReleaseNumbers, String[] preReleaseStrings, String build) {
 		this.major = major;
 		this.minor = minor;
 		this.patch = patch;
-		this.preRelease = preRelease;
+		this.triplet = (major | minor | patch) >>> PACKED_BITS == 0
+				? (long)major << (2 * PACKED_BITS) | (long)minor << PACKED_BITS | patch
+				: UNPACKED;
+		this.preReleaseNumbers = preReleaseNumbers;
+		this.preReleaseStrings = preReleaseStrings;
 		this.build = build;
+
+		int hash = major;
+		hash = 31 * hash + minor;
+		hash = 31 * hash + patch;
+		if(preReleaseNumbers != null)
+			hash = 31 * (31 * hash + Arrays.hashCode(preReleaseNumbers)) + Arrays.hashCode(preReleaseStrings);
+		if(build != null)
+			hash = 31 * hash + build.hashCode();
+		this.hash = hash;
 	}
 
 	public Version toStable() {
-		return isStable() ? this : new Version(major, minor, patch, null, build);
+		return isStable() ? this : new Version(major, minor, patch, null, null, build);
 	}
 
-	static int comparePreReleases(List<Comparable<?>> p1, List<Comparable<?>> p2) {
-		if(p1 == null)
-			return p2 == null ? 0 : 1;
+	private int comparePreReleases(Version o) {
+		if(preReleaseNumbers == null)
+			return o.preReleaseNumbers == null ? 0 : 1;
 
-		if(p2 == null)
+		if(o.preReleaseNumbers == null)
 			return -1;
 
-		int p1Size = p1.size();
-		int p2Size = p2.size();
+		int p1Size = preReleaseNumbers.length;
+		int p2Size = o.preReleaseNumbers.length;
 		int commonMax = p1Size > p2Size ? p2Size : p1Size;
 		for(int idx = 0; idx < commonMax; ++idx) {
-			Object v1 = p1.get(idx);
-			Object v2 = p2.get(idx);
-			if(v1 instanceof Integer) {
-				if(v2 instanceof Integer) {
-					int cmp = ((Integer)v1).compareTo((Integer)v2);
+			String s1 = preReleaseStrings[idx];
+			String s2 = o.preReleaseStrings[idx];
+			if(s1 == null) {
+				if(s2 == null) {
+					int cmp = Integer.compare(preReleaseNumbers[idx], o.preReleaseNumbers[idx]);
 					if(cmp != 0)
 						return cmp;
 					continue;
@@ -74,10 +85,10 @@ public class Version implements Comparable<Version>, Serializable {
 				return -1;
 			}
 
-			if(v2 instanceof Integer)
+			if(s2 == null)
 				return 1;
 
-			int cmp = ((String)v1).compareTo((String)v2);
+			int cmp = s1.compareTo(s2);
 			if(cmp != 0)
 				return cmp;
 		}
@@ -96,36 +107,24 @@ public class Version implements Comparable<Version>, Serializable {
 		if(major < 0 || minor < 0 || patch < 0)
 			throw new IllegalArgumentException("Negative numbers not accepted in version");
 
-		return instanceCache.cache(
-				new Version(major, minor, patch,
-						splitParts("pre-release", preRelease, true),
-						splitParts("build", build, false)));
-	}
-
-	private static List<Comparable<?>> splitParts(String tag, String parts, boolean stringsToInt) {
-		if(parts == null || parts.length() == 0)
-			return null;
-
-		if(!(stringsToInt ? PR_PARTS_PATTERN : PARTS_PATTERN).matcher(parts).matches())
-			throw new IllegalArgumentException("Illegal characters in " + tag);
-
-		int dotIdx = parts.indexOf('.');
-		if(dotIdx < 0)
-			return Collections.singletonList(stringsToInt && isNumber(parts) ? Integer.parseInt(parts) : parts);
+		int[] preReleaseNumbers = null;
+		String[] preReleaseStrings = null;
+		if(preRelease != null && !preRelease.isEmpty()) {
+			int top = preRelease.length();
+			if(scanParts(preRelease, 0, top, true) != top)
+				throw new IllegalArgumentException("Illegal characters in pre-release");
+			preReleaseNumbers = new int[countParts(preRelease, 0, top)];
+			preReleaseStrings = new String[preReleaseNumbers.length];
+			splitPreRelease(preRelease, 0, top, preReleaseNumbers, preReleaseStrings);
+		}
 
-		List<Comparable<?>> result = new ArrayList<>();
-		int start = 0;
-		final int end = parts.length();
-		for(;;) {
-			String part = parts.substring(start, dotIdx);
-			result.add(stringsToInt && isNumber(part) ? Integer.parseInt(part) : part);
-			start = dotIdx + 1;
-			if(start >= end)
-				return result;
-			dotIdx = parts.indexOf('.', start);
-			if(dotIdx < 0)
-				dotIdx = end;
+		if(build != null) {
+			if(build.isEmpty())
+				build = null;
+			else if(scanParts(build, 0, build.length(), false) != build.length())
+				throw new IllegalArgumentException("Illegal characters in build");
 		}
+		return instanceCache.cache(new Version(major, minor, patch, preReleaseNumbers, preReleaseStrings, build));
 	}
 
 	boolean tripletEquals(Version version) {
@@ -133,31 +132,7 @@ public class Version implements Comparable<Version>, Serializable {
 	}
 
 	Version nextPatch() {
-		return new Version(major, minor, patch + 1, null, null);
-	}
-
-	private static void joinParts(List<?> parts, StringBuilder bld) {
-		int top = parts.size();
-		if(top > 0) {
-			bld.append(parts.get(0));
-			for(int idx = 1; idx < top; ++idx) {
-				bld.append('.');
-				bld.append(parts.get(idx));
-			}
-		}
-	}
-
-	static boolean isNumber(String number) {
-		int idx = number.length();
-		if(idx == 0 || idx > 1 && number.charAt(0) == '0')
-			return false;
-
-		while(--idx >= 0) {
-			char c = number.charAt(idx);
-			if(c < '0' || c > '9')
-				return false;
-		}
-		return true;
+		return new Version(major, minor, patch + 1, null, null, null);
 	}
 
 	/**
@@ -170,11 +145,9 @@ public class Version implements Comparable<Version>, Serializable {
 	 * @throws IllegalArgumentException if the version string is not a valid SemVer version.
 	 */
 	public static Version create(String version) throws IllegalArgumentException {
-		if(version != null) {
-			Matcher m = VERSION_PATTERN.matcher(version);
-			if(m.matches())
-				return fromMatch(m);
-		}
+		Version v = version == null ? null : parse(version);
+		if(v != null)
+			return v;
 		throw new IllegalArgumentException("The string '" + version + "' does not represent a valid semantic version");
 	}
 
@@ -186,11 +159,7 @@ public class Version implements Comparable<Version>, Serializable {
 	 * @return The created version.
 	 */
 	public static Version fromStringOrNull(String version) {
-		if(version == null || version.length() == 0)
-			return null;
-
-		Matcher m = VERSION_PATTERN.matcher(version);
-		return m.matches() ? fromMatch(m) : null;
+		return version == null || version.length() == 0 ? null : parse(version);
 	}
 
 	/**
@@ -200,29 +169,34 @@ public class Version implements Comparable<Version>, Serializable {
 	 * @return <code>true</code> if the given <code>version</code> is valid.
 	 */
 	public static boolean isValid(String version) {
-		return version != null && VERSION_PATTERN.matcher(version).matches();
+		return fromStringOrNull(version) != null;
 	}
 
 	@Override
 	public int compareTo(Version o) {
-		int cmp = major - o.major;
-		if(cmp == 0) {
-			cmp = minor - o.minor;
+		int cmp;
+		if(triplet != UNPACKED && o.triplet != UNPACKED)
+			cmp = Long.compare(triplet, o.triplet);
+		else {
+			cmp = Integer.compare(major, o.major);
 			if(cmp == 0) {
-				cmp = patch - o.patch;
+				cmp = Integer.compare(minor, o.minor);
 				if(cmp == 0)
-					cmp = comparePreReleases(preRelease, o.preRelease);
+					cmp = Integer.compare(patch, o.patch);
 			}
 		}
-		return cmp;
+		return cmp == 0 ? comparePreReleases(o) : cmp;
 	}
 
 	@Override
 	public boolean equals(Object o) {
+		if(o == this)
+			return true;
 		if(o instanceof Version) {
 			Version v = (Version)o;
-			return major == v.major && minor == v.minor && patch == v.patch
-					&& Objects.equals(preRelease, v.preRelease)
+			return hash == v.hash && major == v.major && minor == v.minor && patch == v.patch
+					&& Arrays.equals(preReleaseNumbers, v.preReleaseNumbers)
+					&& Arrays.equals(preReleaseStrings, v.preReleaseStrings)
 					&& Objects.equals(build, v.build);
 		}
 		return false;
@@ -241,35 +215,24 @@ public class Version implements Comparable<Version>, Serializable {
 	}
 
 	public String getPreRelease() {
-		if(preRelease == null)
+		if(preReleaseNumbers == null)
 			return null;
 		StringBuilder bld = new StringBuilder();
-		joinParts(preRelease, bld);
+		appendPreRelease(bld);
 		return bld.toString();
 	}
 
 	public String getBuild() {
-		if(build == null)
-			return null;
-		StringBuilder bld = new StringBuilder();
-		joinParts(build, bld);
-		return bld.toString();
+		return build;
 	}
 
 	@Override
 	public int hashCode() {
-		int hash = major;
-		hash = 31 * hash + minor;
-		hash = 31 * hash + patch;
-		if(preRelease != null)
-			hash = 31 * hash + preRelease.hashCode();
-		if(build != null)
-			hash = 31 * hash + build.hashCode();
 		return hash;
 	}
 
 	public boolean isStable() {
-		return preRelease == null;
+		return preReleaseNumbers == null;
 	}
 
 	@Override
@@ -285,27 +248,157 @@ public class Version implements Comparable<Version>, Serializable {
 		bld.append(minor);
 		bld.append('.');
 		bld.append(patch);
-		if(preRelease != null) {
+		if(preReleaseNumbers != null) {
 			bld.append('-');
-			joinParts(preRelease, bld);
+			appendPreRelease(bld);
 		}
 		if(build != null) {
 			bld.append('+');
-			joinParts(build, bld);
+			bld.append(build);
+		}
+	}
+
+	private void appendPreRelease(StringBuilder bld) {
+		for(int idx = 0; idx < preReleaseNumbers.length; ++idx) {
+			if(idx > 0)
+				bld.append('.');
+			String s = preReleaseStrings[idx];
+			if(s == null)
+				bld.append(preReleaseNumbers[idx]);
+			else
+				bld.append(s);
 		}
 	}
 
-	// Parse a string that is known to consists of only digits (stems from regexp group)
-	private static int parseInt(String g) {
-		int top = g.length();
+	// Count the dot separated identifiers in a range that is known to be valid
+	private static int countParts(String s, int start, int end) {
+		int count = 1;
+		for(int idx = start; idx < end; ++idx)
+			if(s.charAt(idx) == '.')
+				++count;
+		return count;
+	}
+
+	private static boolean isIdentifierChar(char c) {
+		return c >= '0' && c <= '9' || c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c == '-';
+	}
+
+	// Parse a range that is known to consist of only digits (stems from scanNumber)
+	private static int parseInt(String s, int start, int end) {
 		int val = 0;
-		for(int idx = 0; idx < top; ++idx)
-			val = val * 10 + (g.charAt(idx) - '0');
+		for(int idx = start; idx < end; ++idx)
+			val = val * 10 + (s.charAt(idx) - '0');
 		return val;
 	}
 
-	private static Version fromMatch(Matcher m) {
-		return instanceCache.cache(new Version(parseInt(m.group(1)), parseInt(m.group(2)), parseInt(m.group(3)),
-				splitParts("pre-release", m.group(4), true), splitParts("build", m.group(5), false)));
+	// Single pass scan of <major>.<minor>.<patch>[-<pre-release>][+<build>]. Returns null when the string is invalid
+	private static Version parse(String s) {
+		int top = s.length();
+		int end = scanNumber(s, 0, top);
+		if(end < 0 || end == top || s.charAt(end) != '.')
+			return null;
+		int major = parseInt(s, 0, end);
+
+		int start = end + 1;
+		end = scanNumber(s, start, top);
+		if(end < 0 || end == top || s.charAt(end) != '.')
+			return null;
+		int minor = parseInt(s, start, end);
+
+		start = end + 1;
+		end = scanNumber(s, start, top);
+		if(end < 0)
+			return null;
+		int patch = parseInt(s, start, end);
+
+		int[] preReleaseNumbers = null;
+		String[] preReleaseStrings = null;
+		if(end < top && s.charAt(end) == '-') {
+			start = end + 1;
+			end = scanParts(s, start, top, true);
+			if(end < 0)
+				return null;
+			preReleaseNumbers = new int[countParts(s, start, end)];
+			preReleaseStrings = new String[preReleaseNumbers.length];
+			splitPreRelease(s, start, end, preReleaseNumbers, preReleaseStrings);
+		}
+
+		String build = null;
+		if(end < top && s.charAt(end) == '+') {
+			start = end + 1;
+			end = scanParts(s, start, top, false);
+			if(end < 0)
+				return null;
+			build = s.substring(start, end);
+		}
+		return end == top ? instanceCache.cache(new Version(major, minor, patch, preReleaseNumbers, preReleaseStrings, build)) : null;
+	}
+
+	// Returns the index after the last digit, or -1 if there are no digits or the number has a leading zero
+	private static int scanNumber(String s, int start, int top) {
+		int idx = start;
+		while(idx < top) {
+			char c = s.charAt(idx);
+			if(c < '0' || c > '9')
+				break;
+			++idx;
+		}
+		if(idx == start || idx - start > 1 && s.charAt(start) == '0')
+			return -1;
+		return idx;
+	}
+
+	// Scans dot separated identifiers and returns the index after the last identifier, or -1 if an identifier
+	// is empty. Numeric pre-release identifiers must fit in an int and must not have leading zeroes.
+	private static int scanParts(String s, int start, int top, boolean preRelease) {
+		for(;;) {
+			int idx = start;
+			boolean numeric = true;
+			while(idx < top) {
+				char c = s.charAt(idx);
+				if(!isIdentifierChar(c))
+					break;
+				if(c < '0' || c > '9')
+					numeric = false;
+				++idx;
+			}
+			if(idx == start)
+				return -1;
+
+			if(preRelease && numeric) {
+				if(idx - start > 1 && s.charAt(start) == '0')
+					return -1;
+				long val = 0;
+				for(int n = start; n < idx; ++n) {
+					val = val * 10 + (s.charAt(n) - '0');
+					if(val > Integer.MAX_VALUE)
+						return -1;
+				}
+			}
+
+			if(idx == top || s.charAt(idx) != '.')
+				return idx;
+			start = idx + 1;
+		}
+	}
+
+	// Split a pre-release that is known to be valid into numeric and string identifiers
+	private static void splitPreRelease(String s, int start, int end, int[] numbers, String[] strings) {
+		for(int part = 0; ; ++part) {
+			int idx = start;
+			boolean numeric = true;
+			while(idx < end && s.charAt(idx) != '.') {
+				char c = s.charAt(idx++);
+				if(c < '0' || c > '9')
+					numeric = false;
+			}
+			if(numeric)
+				numbers[part] = parseInt(s, start, idx);
+			else
+				strings[part] = s.substring(start, idx);
+			if(idx == end)
+				return;
+			start = idx + 1;
+		}
 	}
 }
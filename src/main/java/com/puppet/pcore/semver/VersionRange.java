@@ -10,14 +10,14 @@
  */
 package com.puppet.pcore.semver;
 
+import com.puppet.pcore.impl.BoundedCache;
 import com.puppet.pcore.impl.MergableRange;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static com.puppet.pcore.impl.Helpers.asList;
 
@@ -101,27 +101,7 @@ import static com.puppet.pcore.impl.Helpers.asList;
  * </p>
  */
 public class VersionRange implements MergableRange<VersionRange>, Serializable {
-	private static final String NR = "0|[1-9][0-9]*";
-	private static final String XR = "(x|X|\\*|" + NR + ")";
-
-	private static final String PART = "(?:[0-9A-Za-z-]+)";
-	private static final String PARTS = PART + "(?:\\." + PART + ")*";
-	private static final String QUALIFIER = "(?:-(" + PARTS + "))?(?:\\+(" + PARTS + "))?";
-
-	private static final String PARTIAL = XR + "(?:\\." + XR + "(?:\\." + XR + QUALIFIER + ")?)?";
-
-  // The ~> isn"t in the spec but allowed
-  private static final String SIMPLE = "([<>=~^]|<=|>=|~>|~=)?(?:" + PARTIAL + ")";
-	private static final Pattern SIMPLE_PATTERN = Pattern.compile("\\A" + SIMPLE + "\\z");
-
-
-	private static final Pattern OR_SPLIT = Pattern.compile("\\s*\\|\\|\\s*");
-	private static final Pattern SIMPLE_SPLIT = Pattern.compile("\\s+");
-
-	private static final Pattern OP_WS_PATTERN = Pattern.compile("([><=~^])(?:\\s+|\\s*v)");
-
-	private static final String HYPHEN = "(?:" + PARTIAL + ")\\s+-\\s+(?:" + PARTIAL + ")";
-	private static final Pattern HYPHEN_PATTERN = Pattern.compile("\\A" + HYPHEN + "\\z");
+	private static final BoundedCache<String,VersionRange> rangeCache = new BoundedCache<>(1024);
 
 	private static final SimpleRange LOWEST_LB = new GtEqRange(Version.MIN);
 	private static final SimpleRange HIGHEST_LB = new GtRange(Version.MAX);
@@ -134,6 +114,7 @@ public class VersionRange implements MergableRange<VersionRange>, Serializable {
 
 	private final List<AbstractRange> ranges;
 	private final String originalString;
+	private transient SortedRanges sortedRanges;
 
 	private VersionRange(String originalString, List<AbstractRange> ranges) {
 		boolean mergeHappened = true;
@@ -208,15 +189,7 @@ public class VersionRange implements MergableRange<VersionRange>, Serializable {
 		return version == null ? null : new VersionRange(null, asList(new EqRange(version)));
 	}
 
-	private static Integer xDigit(String str) {
-		if(str == null || "x".equals(str) || "X".equals(str) || "*".equals(str))
-			return null;
-		if(Version.isNumber(str))
-			return Integer.parseInt(str);
-		throw new IllegalArgumentException("Illegal version triplet");
-	}
-
-	private static abstract class AbstractRange {
+	static abstract class AbstractRange {
 
 		abstract SimpleRange asLowerBound();
 
@@ -762,137 +735,89 @@ public class VersionRange implements MergableRange<VersionRange>, Serializable {
 		}
 	}
 
-	private static AbstractRange createGtEqRange(Matcher matcher, int startInMatcher) {
-		Integer major = xDigit(matcher.group(startInMatcher++));
-		if(major == null)
+	private static AbstractRange createGtEqRange(Partial p) {
+		if(p.major == null)
 			return LOWEST_LB;
 
-		Integer minor = xDigit(matcher.group(startInMatcher++));
-		if(minor == null)
-			minor = 0;
-
-		Integer patch = xDigit(matcher.group(startInMatcher++));
-		if(patch == null)
-			patch = 0;
-
-		String preRelease = matcher.group(startInMatcher++);
-		String build = matcher.group(startInMatcher);
-		return new GtEqRange(Version.create(major, minor, patch, preRelease, build));
+		return new GtEqRange(Version.create(p.major, p.minor == null ? 0 : p.minor, p.patch == null ? 0 : p.patch, p.preRelease, p.build));
 	}
 
-	private static AbstractRange createGtRange(Matcher matcher, int startInMatcher) {
-		Integer major = xDigit(matcher.group(startInMatcher++));
-		if(major == null)
+	private static AbstractRange createGtRange(Partial p) {
+		if(p.major == null)
 			return LOWEST_LB;
 
-		Integer minor = xDigit(matcher.group(startInMatcher++));
-		if(minor == null)
-			return new GtEqRange(Version.create(major + 1, 0, 0));
+		if(p.minor == null)
+			return new GtEqRange(Version.create(p.major + 1, 0, 0));
 
-		Integer patch = xDigit(matcher.group(startInMatcher++));
-		if(patch == null)
-			return new GtEqRange(Version.create(major, minor + 1, 0));
+		if(p.patch == null)
+			return new GtEqRange(Version.create(p.major, p.minor + 1, 0));
 
-		String preRelease = matcher.group(startInMatcher++);
-		String build = matcher.group(startInMatcher);
-		return new GtRange(Version.create(major, minor, patch, preRelease, build));
+		return new GtRange(Version.create(p.major, p.minor, p.patch, p.preRelease, p.build));
 	}
 
-	private static AbstractRange createLtEqRange(Matcher matcher, int startInMatcher) {
-		Integer major = xDigit(matcher.group(startInMatcher++));
-		if(major == null)
+	private static AbstractRange createLtEqRange(Partial p) {
+		if(p.major == null)
 			return LOWEST_UB;
 
-		Integer minor = xDigit(matcher.group(startInMatcher++));
-		if(minor == null)
-			return new LtRange(Version.create(major + 1, 0, 0));
+		if(p.minor == null)
+			return new LtRange(Version.create(p.major + 1, 0, 0));
 
-		Integer patch = xDigit(matcher.group(startInMatcher++));
-		if(patch == null)
-			return new LtRange(Version.create(major, minor + 1, 0));
+		if(p.patch == null)
+			return new LtRange(Version.create(p.major, p.minor + 1, 0));
 
-		String preRelease = matcher.group(startInMatcher++);
-		String build = matcher.group(startInMatcher);
-		return new LtEqRange(Version.create(major, minor, patch, preRelease, build));
+		return new LtEqRange(Version.create(p.major, p.minor, p.patch, p.preRelease, p.build));
 	}
 
-	private static AbstractRange createLtRange(Matcher matcher, int startInMatcher) {
-		Integer major = xDigit(matcher.group(startInMatcher++));
-		if(major == null)
+	private static AbstractRange createLtRange(Partial p) {
+		if(p.major == null)
 			return LOWEST_UB;
 
-		Integer minor = xDigit(matcher.group(startInMatcher++));
-		if(minor == null)
-			minor = 0;
-
-		Integer patch = xDigit(matcher.group(startInMatcher++));
-		if(patch == null)
-			patch = 0;
-
-		String preRelease = matcher.group(startInMatcher++);
-		String build = matcher.group(startInMatcher);
-		return new LtRange(Version.create(major, minor, patch, preRelease, build));
+		return new LtRange(Version.create(p.major, p.minor == null ? 0 : p.minor, p.patch == null ? 0 : p.patch, p.preRelease, p.build));
 	}
 
-	private static AbstractRange createTildeRange(Matcher matcher, int startInMatcher) {
-		return allowPatchUpdates(matcher, startInMatcher, true);
+	private static AbstractRange createTildeRange(Partial p) {
+		return allowPatchUpdates(p, true);
 	}
 
-	private static AbstractRange createCaretRange(Matcher matcher, int startInMatcher) {
-		Integer major = xDigit(matcher.group(startInMatcher));
-		if(major == null)
+	private static AbstractRange createCaretRange(Partial p) {
+		if(p.major == null)
 			return LOWEST_LB;
-		return major == 0 ? allowPatchUpdates(matcher, startInMatcher, true) : allowMinorUpdates(matcher, major, ++startInMatcher);
+		return p.major == 0 ? allowPatchUpdates(p, true) : allowMinorUpdates(p);
 	}
 
-	private static AbstractRange createXRange(Matcher matcher, int startInMatcher) {
-		return allowPatchUpdates(matcher, startInMatcher, false);
+	private static AbstractRange createXRange(Partial p) {
+		return allowPatchUpdates(p, false);
 	}
 
-	private static AbstractRange allowPatchUpdates(Matcher matcher, int startInMatcher, boolean tildeOrCaret) {
-		Integer major = xDigit(matcher.group(startInMatcher++));
-		if(major == null)
+	private static AbstractRange allowPatchUpdates(Partial p, boolean tildeOrCaret) {
+		if(p.major == null)
 			return LOWEST_LB;
 
-		Integer minor = xDigit(matcher.group(startInMatcher++));
-		if(minor == null)
+		if(p.minor == null)
 			return new MinMaxRange(
-					new GtEqRange(Version.create(major, 0, 0)),
-					new LtRange(Version.create(major + 1, 0, 0)));
+					new GtEqRange(Version.create(p.major, 0, 0)),
+					new LtRange(Version.create(p.major + 1, 0, 0)));
 
-		Integer patch = xDigit(matcher.group(startInMatcher++));
-		if(patch == null)
+		if(p.patch == null)
 			return new MinMaxRange(
-					new GtEqRange(Version.create(major, minor, 0)),
-					new LtRange(Version.create(major, minor + 1, 0)));
+					new GtEqRange(Version.create(p.major, p.minor, 0)),
+					new LtRange(Version.create(p.major, p.minor + 1, 0)));
 
-		String preRelease = matcher.group(startInMatcher++);
-		String build = matcher.group(startInMatcher);
 		return tildeOrCaret ? new MinMaxRange(
-				new GtEqRange(Version.create(major, minor, patch, preRelease, build)),
-				new LtRange(Version.create(major, minor + 1, 0)))
-				: new EqRange(Version.create(major, minor, patch, preRelease, build));
+				new GtEqRange(Version.create(p.major, p.minor, p.patch, p.preRelease, p.build)),
+				new LtRange(Version.create(p.major, p.minor + 1, 0)))
+				: new EqRange(Version.create(p.major, p.minor, p.patch, p.preRelease, p.build));
 	}
 
-	private static AbstractRange allowMinorUpdates(Matcher matcher, int major, int startInMatcher) {
-		Integer minor = xDigit(matcher.group(startInMatcher++));
-		if(minor == null)
-			minor = 0;
-
-		Integer patch = xDigit(matcher.group(startInMatcher++));
-		if(patch == null)
-			patch = 0;
-
-		String preRelease = matcher.group(startInMatcher++);
-		String build = matcher.group(startInMatcher);
+	private static AbstractRange allowMinorUpdates(Partial p) {
 		return new MinMaxRange(
-				new GtEqRange(Version.create(major, minor, patch, preRelease, build)),
-				new LtRange(Version.create(major + 1, 0, 0)));
+				new GtEqRange(Version.create(p.major, p.minor == null ? 0 : p.minor, p.patch == null ? 0 : p.patch, p.preRelease, p.build)),
+				new LtRange(Version.create(p.major + 1, 0, 0)));
 	}
 
 	/**
 	 * Returns a range based on the given string. See class documentation
-	 * for details.
+	 * for details. Parsed ranges are cached by string.
 	 *
 	 * @param versionRequirement The string form of the version requirement
 	 * @return The created range
@@ -901,72 +826,129 @@ public class VersionRange implements MergableRange<VersionRange>, Serializable {
 		if(versionRequirement == null)
 			return null;
 
-		Matcher m = OP_WS_PATTERN.matcher(versionRequirement);
-		if(m.find()) {
-			StringBuffer sb = new StringBuffer();
-			do
-				m.appendReplacement(sb, m.group(1));
-			while(m.find());
-			m.appendTail(sb);
-			versionRequirement = sb.toString();
+		VersionRange range = rangeCache.get(versionRequirement);
+		if(range == null) {
+			range = parse(versionRequirement);
+			rangeCache.put(versionRequirement, range);
 		}
+		return range;
+	}
 
-		String[] rangeStrings = OR_SPLIT.split(versionRequirement);
-		if(rangeStrings.length == 0)
-			return ALL_INCLUSIVE;
+	private static VersionRange parse(String versionRequirement) {
+		versionRequirement = stripOperatorWhitespace(versionRequirement);
 
+		// Ranges are separated by '||' with optional surrounding whitespace. Empty ranges at the end are ignored
 		List<AbstractRange> ranges = new ArrayList<>();
-		for(String rangeStr : rangeStrings) {
-			if(rangeStr.isEmpty()) {
-				ranges.add(LOWEST_LB);
-				continue;
+		int top = versionRequirement.length();
+		int sep = versionRequirement.indexOf("||");
+		if(sep < 0)
+			addRange(ranges, parseRange(versionRequirement, 0, top));
+		else {
+			int start = 0;
+			int pendingEmpty = 0;
+			for(;;) {
+				int end = top;
+				if(sep >= 0)
+					for(end = sep; end > start && isWhitespace(versionRequirement.charAt(end - 1)); )
+						--end;
+				if(end == start)
+					++pendingEmpty;
+				else {
+					for(; pendingEmpty > 0; --pendingEmpty)
+						ranges.add(LOWEST_LB);
+					addRange(ranges, parseRange(versionRequirement, start, end));
+				}
+				if(sep < 0)
+					break;
+				start = skipWhitespace(versionRequirement, sep + 2, top);
+				sep = versionRequirement.indexOf("||", start);
 			}
+			if(ranges.isEmpty())
+				return ALL_INCLUSIVE;
+		}
+		return new VersionRange(versionRequirement, ranges);
+	}
 
-			m = HYPHEN_PATTERN.matcher(rangeStr);
-			if(m.matches()) {
-				ranges.add(createGtEqRange(m, 1).intersection(createLtEqRange(m, 6)));
-				continue;
+	private static void addRange(List<AbstractRange> ranges, AbstractRange range) {
+		if(range != null)
+			ranges.add(range);
+	}
+
+	private static AbstractRange parseRange(String versionRequirement, int start, int end) {
+		if(start == end)
+			return LOWEST_LB;
+
+		Partial lower = new Partial();
+		int idx = lower.scan(versionRequirement, start, end);
+		if(idx > start && idx < end && isWhitespace(versionRequirement.charAt(idx))) {
+			idx = skipWhitespace(versionRequirement, idx, end);
+			if(idx < end && versionRequirement.charAt(idx) == '-') {
+				int upperStart = skipWhitespace(versionRequirement, idx + 1, end);
+				Partial upper = new Partial();
+				if(upperStart > idx + 1 && upper.scan(versionRequirement, upperStart, end) == end)
+					return createGtEqRange(lower.accept(versionRequirement)).intersection(createLtEqRange(upper.accept(versionRequirement)));
 			}
+		}
 
-			AbstractRange simpleRange = null;
-			for(String simple : SIMPLE_SPLIT.split(rangeStr)) {
-				m = SIMPLE_PATTERN.matcher(simple);
-				if(!m.matches())
-					throw vomit('\'' + simple + "' is not a valid version range", versionRequirement);
-				String operator = m.group(1);
-				AbstractRange range;
-				switch(operator == null ? "=" : operator) {
-				case "~":
-				case "~>":
-					range = createTildeRange(m, 2);
-					break;
-				case "^":
-					range = createCaretRange(m, 2);
-					break;
-				case ">":
-					range = createGtRange(m, 2);
-					break;
-				case ">=":
-					range = createGtEqRange(m, 2);
-					break;
-				case "<":
-					range = createLtRange(m, 2);
-					break;
-				case "<=":
-					range = createLtEqRange(m, 2);
-					break;
-				default:
-					range = createXRange(m, 2);
+		// Whitespace separated simple ranges. Trailing whitespace is ignored
+		while(end > start && isWhitespace(versionRequirement.charAt(end - 1)))
+			--end;
+		if(end == start)
+			return null;
+
+		AbstractRange simpleRange = null;
+		for(idx = start; ; ) {
+			int simpleEnd = idx;
+			while(simpleEnd < end && !isWhitespace(versionRequirement.charAt(simpleEnd)))
+				++simpleEnd;
+			AbstractRange range = parseSimpleRange(versionRequirement, idx, simpleEnd);
+			simpleRange = simpleRange == null ? range : simpleRange.intersection(range);
+			if(simpleEnd == end)
+				return simpleRange;
+			idx = skipWhitespace(versionRequirement, simpleEnd, end);
+		}
+	}
+
+	private static AbstractRange parseSimpleRange(String versionRequirement, int start, int end) {
+		// The ~> isn't in the spec but allowed
+		String operator = "=";
+		int idx = start;
+		if(idx < end) {
+			char c = versionRequirement.charAt(idx);
+			if(isOperatorChar(c)) {
+				operator = String.valueOf(c);
+				if(++idx < end) {
+					char n = versionRequirement.charAt(idx);
+					if(n == '=' && (c == '<' || c == '>' || c == '~') || n == '>' && c == '~') {
+						operator = versionRequirement.substring(start, idx + 1);
+						++idx;
+					}
 				}
-				if(simpleRange == null)
-					simpleRange = range;
-				else
-					simpleRange = simpleRange.intersection(range);
 			}
-			if(simpleRange != null)
-				ranges.add(simpleRange);
 		}
-		return new VersionRange(versionRequirement, ranges);
+
+		Partial p = new Partial();
+		if(p.scan(versionRequirement, idx, end) != end)
+			throw vomit('\'' + versionRequirement.substring(start, end) + "' is not a valid version range", versionRequirement);
+		p.accept(versionRequirement);
+
+		switch(operator) {
+		case "~":
+		case "~>":
+			return createTildeRange(p);
+		case "^":
+			return createCaretRange(p);
+		case ">":
+			return createGtRange(p);
+		case ">=":
+			return createGtEqRange(p);
+		case "<":
+			return createLtRange(p);
+		case "<=":
+			return createLtEqRange(p);
+		default:
+			return createXRange(p);
+		}
 	}
 
 	/**
@@ -1106,10 +1088,23 @@ public class VersionRange implements MergableRange<VersionRange>, Serializable {
 	public boolean includes(Version version) {
 		if(version == null)
 			return false;
-		for(AbstractRange range : ranges)
-			if(range.includes(version) && (version.isStable() || range.testPrerelease(version)))
-				return true;
-		return false;
+
+		AbstractRange range = ranges.size() == 1 ? ranges.get(0) : getSortedRanges().candidate(version);
+		return range != null && range.includes(version) && (version.isStable() || range.testPrerelease(version));
+	}
+
+	/**
+	 * @return the disjoint ranges of this range ordered on their lower bound. The returned array must not be modified.
+	 */
+	AbstractRange[] sortedRanges() {
+		return getSortedRanges().ranges;
+	}
+
+	private SortedRanges getSortedRanges() {
+		SortedRanges sorted = sortedRanges;
+		if(sorted == null)
+			sortedRanges = sorted = new SortedRanges(ranges);
+		return sorted;
 	}
 
 	/**
@@ -1174,7 +1169,206 @@ public class VersionRange implements MergableRange<VersionRange>, Serializable {
 		}
 	}
 
+	private static boolean isOperatorChar(char c) {
+		return c == '<' || c == '>' || c == '=' || c == '~' || c == '^';
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == 0x0b;
+	}
+
+	private static int skipWhitespace(String s, int idx, int top) {
+		while(idx < top && isWhitespace(s.charAt(idx)))
+			++idx;
+		return idx;
+	}
+
+	// Removes whitespace that follows an operator character, or a 'v' that directly follows one
+	private static String stripOperatorWhitespace(String s) {
+		StringBuilder bld = null;
+		int top = s.length();
+		int copied = 0;
+		for(int idx = 0; idx + 1 < top; ++idx) {
+			if(!isOperatorChar(s.charAt(idx)))
+				continue;
+			int next = skipWhitespace(s, idx + 1, top);
+			if(next == idx + 1) {
+				if(s.charAt(next) != 'v')
+					continue;
+				++next;
+			}
+			if(bld == null)
+				bld = new StringBuilder(top);
+			bld.append(s, copied, idx + 1);
+			copied = next;
+			idx = next - 1;
+		}
+		return bld == null ? s : bld.append(s, copied, top).toString();
+	}
+
 	private static IllegalArgumentException vomit(String reason, String range) {
 		return new IllegalArgumentException(reason + " in range '" + range + '\'');
 	}
+
+	/**
+	 * A version where minor, patch, pre-release, and build may be missing and where major, minor, and patch
+	 * may be one of the wildcards 'x', 'X', or '*'. Missing parts and wildcards are represented by <code>null</code>.
+	 */
+	private static class Partial {
+		Integer major;
+		Integer minor;
+		Integer patch;
+		String preRelease;
+		String build;
+
+		// start and end of major, minor, and patch in the scanned string. Converted once the scan is accepted
+		private final int[] tripletBounds = { -1, -1, -1, -1, -1, -1 };
+
+		/**
+		 * Converts the scanned major, minor, and patch into numbers.
+		 *
+		 * @return this partial
+		 */
+		Partial accept(String s) {
+			major = tripletBounds[0] < 0 ? null : xDigit(s, tripletBounds[0], tripletBounds[1]);
+			minor = tripletBounds[2] < 0 ? null : xDigit(s, tripletBounds[2], tripletBounds[3]);
+			patch = tripletBounds[4] < 0 ? null : xDigit(s, tripletBounds[4], tripletBounds[5]);
+			return this;
+		}
+
+		/**
+		 * Scans a partial version that starts at <code>start</code>.
+		 *
+		 * @return the index after the partial version or -1 if no valid partial version starts at <code>start</code>
+		 */
+		int scan(String s, int start, int top) {
+			int end = start;
+			for(int part = 0; part < 6; part += 2) {
+				if(part > 0) {
+					if(end == top || s.charAt(end) != '.')
+						return end;
+					start = end + 1;
+				}
+				end = scanXDigit(s, start, top);
+				if(end < 0)
+					return -1;
+				tripletBounds[part] = start;
+				tripletBounds[part + 1] = end;
+			}
+
+			if(end < top && s.charAt(end) == '-') {
+				start = end + 1;
+				end = scanParts(s, start, top);
+				if(end < 0)
+					return -1;
+				preRelease = s.substring(start, end);
+			}
+			if(end < top && s.charAt(end) == '+') {
+				start = end + 1;
+				end = scanParts(s, start, top);
+				if(end < 0)
+					return -1;
+				build = s.substring(start, end);
+			}
+			return end;
+		}
+
+		// Scans dot separated identifiers. Validation of the identifiers is left to Version
+		private static int scanParts(String s, int idx, int top) {
+			for(;;) {
+				int start = idx;
+				while(idx < top) {
+					char c = s.charAt(idx);
+					if(!(c >= '0' && c <= '9' || c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c == '-'))
+						break;
+					++idx;
+				}
+				if(idx == start)
+					return -1;
+				if(idx + 1 >= top || s.charAt(idx) != '.')
+					return idx;
+				++idx;
+			}
+		}
+
+		// Scans a number without leading zeroes or one of the wildcards 'x', 'X', or '*'
+		private static int scanXDigit(String s, int idx, int top) {
+			if(idx >= top)
+				return -1;
+			char c = s.charAt(idx++);
+			if(c == 'x' || c == 'X' || c == '*' || c == '0')
+				return idx;
+			if(c < '1' || c > '9')
+				return -1;
+			while(idx < top && (c = s.charAt(idx)) >= '0' && c <= '9')
+				++idx;
+			return idx;
+		}
+
+		private static Integer xDigit(String s, int start, int end) {
+			char c = s.charAt(start);
+			if(c == 'x' || c == 'X' || c == '*')
+				return null;
+			if(end - start > 9)
+				return Integer.parseInt(s.substring(start, end));
+			int val = 0;
+			for(int idx = start; idx < end; ++idx)
+				val = val * 10 + (s.charAt(idx) - '0');
+			return val;
+		}
+	}
+
+	/**
+	 * The ranges of a VersionRange sorted on their lower bound. Since the ranges never overlap, the only range that
+	 * can include a given version is the one with the greatest lower bound that is less than or equal to that version.
+	 */
+	private static class SortedRanges {
+		private final AbstractRange[] ranges;
+
+		// major, minor, and patch of the lower bound of each range
+		private final int[] lowerBounds;
+
+		SortedRanges(List<AbstractRange> ranges) {
+			AbstractRange[] sorted = ranges.toArray(new AbstractRange[ranges.size()]);
+			Arrays.sort(sorted, (a, b) -> a.min().compareTo(b.min()));
+			int[] lowerBounds = new int[sorted.length * 3];
+			for(int idx = 0; idx < sorted.length; ++idx) {
+				Version min = sorted[idx].min();
+				lowerBounds[idx * 3] = min.getMajor();
+				lowerBounds[idx * 3 + 1] = min.getMinor();
+				lowerBounds[idx * 3 + 2] = min.getPatch();
+			}
+			this.ranges = sorted;
+			this.lowerBounds = lowerBounds;
+		}
+
+		AbstractRange candidate(Version version) {
+			int low = 0;
+			int high = ranges.length - 1;
+			AbstractRange found = null;
+			while(low <= high) {
+				int mid = (low + high) >>> 1;
+				if(compareLowerBound(mid, version) <= 0) {
+					found = ranges[mid];
+					low = mid + 1;
+				} else
+					high = mid - 1;
+			}
+			return found;
+		}
+
+		private int compareLowerBound(int idx, Version version) {
+			int offset = idx * 3;
+			int cmp = Integer.compare(lowerBounds[offset], version.getMajor());
+			if(cmp == 0) {
+				cmp = Integer.compare(lowerBounds[offset + 1], version.getMinor());
+				if(cmp == 0) {
+					cmp = Integer.compare(lowerBounds[offset + 2], version.getPatch());
+					if(cmp == 0)
+						cmp = ranges[idx].min().compareTo(version);
+				}
+			}
+			return cmp;
+		}
+	}
 }
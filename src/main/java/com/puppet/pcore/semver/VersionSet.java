@@ -0,0 +1,262 @@
+package com.puppet.pcore.semver;
+
+import com.puppet.pcore.semver.VersionRange.AbstractRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable set of versions sorted on precedence that answers range queries using binary search instead of
+ * testing every version.
+ * <p>
+ * Stable versions and pre-release versions are kept apart. A pre-release version is only included in a range when
+ * it shares major, minor, and patch with a pre-release bound of that range, so only the pre-releases of those
+ * triplets need to be considered.
+ * </p>
+ * Versions that differ only in build metadata have equal precedence. It is unspecified which of them is returned
+ * from {@link #bestMatch(VersionRange)}.
+ */
+public final class VersionSet implements Iterable<Version> {
+	public static final VersionSet EMPTY = new VersionSet(new Version[0]);
+
+	private final List<Version> all;
+	private final Version[] stable;
+	private final Version[] preReleases;
+
+	// major, minor, and patch of each stable version
+	private final int[] stableTriplets;
+
+	private VersionSet(Version[] sorted) {
+		int stableCount = 0;
+		for(Version v : sorted)
+			if(v.isStable())
+				++stableCount;
+
+		Version[] stable = new Version[stableCount];
+		Version[] preReleases = new Version[sorted.length - stableCount];
+		int[] stableTriplets = new int[stableCount * 3];
+		int stableIdx = 0;
+		int preReleaseIdx = 0;
+		for(Version v : sorted) {
+			if(v.isStable()) {
+				stableTriplets[stableIdx * 3] = v.getMajor();
+				stableTriplets[stableIdx * 3 + 1] = v.getMinor();
+				stableTriplets[stableIdx * 3 + 2] = v.getPatch();
+				stable[stableIdx++] = v;
+			} else
+				preReleases[preReleaseIdx++] = v;
+		}
+		this.all = Collections.unmodifiableList(Arrays.asList(sorted));
+		this.stable = stable;
+		this.preReleases = preReleases;
+		this.stableTriplets = stableTriplets;
+	}
+
+	/**
+	 * Creates a set from the given versions. Duplicates are removed.
+	 *
+	 * @param versions the versions of the set
+	 * @return the created set
+	 */
+	public static VersionSet create(Iterable<Version> versions) {
+		Set<Version> unique = new LinkedHashSet<>();
+		for(Version v : versions)
+			unique.add(v);
+		if(unique.isEmpty())
+			return EMPTY;
+
+		Version[] sorted = unique.toArray(new Version[unique.size()]);
+		Arrays.sort(sorted);
+		return new VersionSet(sorted);
+	}
+
+	/**
+	 * Returns all versions of this set that are included in the given range.
+	 *
+	 * @param range the range to match
+	 * @return the matching versions, sorted on precedence
+	 */
+	public List<Version> allMatches(VersionRange range) {
+		List<Version> matches = new ArrayList<>();
+		for(AbstractRange r : range.sortedRanges()) {
+			int start = matches.size();
+			int last = lastStable(r.max(), r.isExcludeMax());
+			for(int idx = lastStable(r.min(), !r.isExcludeMin()) + 1; idx <= last; ++idx)
+				matches.add(stable[idx]);
+
+			int stableEnd = matches.size();
+			addPreReleaseMatches(r, r.min(), matches);
+			if(!r.min().tripletEquals(r.max()))
+				addPreReleaseMatches(r, r.max(), matches);
+			if(matches.size() > stableEnd)
+				Collections.sort(matches.subList(start, matches.size()));
+		}
+		return matches;
+	}
+
+	/**
+	 * Returns the version with the highest precedence of the versions in this set that are included in the
+	 * given range. The result is the same as {@link VersionRange#findBestMatch(Iterable)} would give for
+	 * this set.
+	 *
+	 * @param range the range to match
+	 * @return the best match or <code>null</code> if no version matches
+	 */
+	public Version bestMatch(VersionRange range) {
+		AbstractRange[] ranges = range.sortedRanges();
+		for(int idx = ranges.length; --idx >= 0; ) {
+			Version best = bestMatch(ranges[idx]);
+			if(best != null)
+				return best;
+		}
+		return null;
+	}
+
+	/**
+	 * @param range the range to match
+	 * @return <code>true</code> if at least one version of this set is included in the given range
+	 */
+	public boolean intersects(VersionRange range) {
+		return bestMatch(range) != null;
+	}
+
+	@Override
+	public Iterator<Version> iterator() {
+		return all.iterator();
+	}
+
+	/**
+	 * @return the number of versions in this set
+	 */
+	public int size() {
+		return all.size();
+	}
+
+	@Override
+	public String toString() {
+		return all.toString();
+	}
+
+	private void addPreReleaseMatches(AbstractRange range, Version bound, List<Version> matches) {
+		int end = firstPreReleaseAbove(bound);
+		for(int idx = firstPreRelease(bound); idx < end; ++idx) {
+			Version v = preReleases[idx];
+			if(range.includes(v) && range.testPrerelease(v))
+				matches.add(v);
+		}
+	}
+
+	private Version bestMatch(AbstractRange range) {
+		Version best = null;
+		int idx = lastStable(range.max(), range.isExcludeMax());
+		if(idx >= 0 && range.includes(stable[idx]))
+			best = stable[idx];
+		best = higher(best, bestPreRelease(range, range.max()));
+		return higher(best, bestPreRelease(range, range.min()));
+	}
+
+	// The highest pre-release that shares major, minor, and patch with the given bound and is included in the range
+	private Version bestPreRelease(AbstractRange range, Version bound) {
+		int start = firstPreRelease(bound);
+		int idx = firstPreReleaseAbove(bound);
+		Version max = range.max();
+		boolean excludeMax = range.isExcludeMax();
+
+		// Binary search for the last index in [start, idx) that is not above max
+		int low = start;
+		int high = idx - 1;
+		idx = -1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = preReleases[mid].compareTo(max);
+			if(cmp < 0 || cmp == 0 && !excludeMax) {
+				idx = mid;
+				low = mid + 1;
+			} else
+				high = mid - 1;
+		}
+		if(idx < 0)
+			return null;
+		Version v = preReleases[idx];
+		return range.includes(v) && range.testPrerelease(v) ? v : null;
+	}
+
+	private static int compareTriplet(Version v, int major, int minor, int patch) {
+		int cmp = Integer.compare(v.getMajor(), major);
+		if(cmp == 0) {
+			cmp = Integer.compare(v.getMinor(), minor);
+			if(cmp == 0)
+				cmp = Integer.compare(v.getPatch(), patch);
+		}
+		return cmp;
+	}
+
+	// Index of the first pre-release with the same major, minor, and patch as the given version, or of the
+	// first pre-release above them
+	private int firstPreRelease(Version v) {
+		return preReleaseIndex(v, false);
+	}
+
+	// Index of the first pre-release with major, minor, and patch above those of the given version
+	private int firstPreReleaseAbove(Version v) {
+		return preReleaseIndex(v, true);
+	}
+
+	private static Version higher(Version a, Version b) {
+		return a == null || b != null && b.compareTo(a) > 0 ? b : a;
+	}
+
+	// Index of the last stable version that is below the bound, or not above it unless exclusive. -1 if there is none
+	private int lastStable(Version bound, boolean exclusive) {
+		int major = bound.getMajor();
+		int minor = bound.getMinor();
+		int patch = bound.getPatch();
+
+		// A stable version is above a pre-release with the same major, minor, and patch
+		int tie = bound.isStable() ? 0 : 1;
+		int low = 0;
+		int high = stable.length - 1;
+		int found = -1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			int offset = mid * 3;
+			int cmp = Integer.compare(stableTriplets[offset], major);
+			if(cmp == 0) {
+				cmp = Integer.compare(stableTriplets[offset + 1], minor);
+				if(cmp == 0) {
+					cmp = Integer.compare(stableTriplets[offset + 2], patch);
+					if(cmp == 0)
+						cmp = tie;
+				}
+			}
+			if(cmp < 0 || cmp == 0 && !exclusive) {
+				found = mid;
+				low = mid + 1;
+			} else
+				high = mid - 1;
+		}
+		return found;
+	}
+
+	private int preReleaseIndex(Version v, boolean above) {
+		int major = v.getMajor();
+		int minor = v.getMinor();
+		int patch = v.getPatch();
+		int low = 0;
+		int high = preReleases.length;
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compareTriplet(preReleases[mid], major, minor, patch);
+			if(cmp < 0 || cmp == 0 && above)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+}
@@ -10,18 +10,26 @@
  */
 package com.puppet.pcore.semver;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Generic weak key, weak value cache that ensures that all current entries of T are
- * that are equal also are the exact same instance
+ * that are equal also are the exact same instance.
+ * <p>
+ * The cache is safe for concurrent use. Lookups of values that are already cached do not lock, and each
+ * entry is a single weak reference that serves as both key and value. Entries whose values have been
+ * garbage collected are removed as part of subsequent calls.
+ * </p>
  *
  * @param <T>
  */
 public class WeakCache<T> {
-	private final Map<T,WeakReference<T>> cache = new WeakHashMap<>();
+	private final Map<Object,Entry<T>> cache = new ConcurrentHashMap<>();
+	private final ReferenceQueue<T> staleEntries = new ReferenceQueue<>();
 
 	/**
 	 * Return the cached instance of the given value. Cache it if its not in the cache yet.
@@ -31,17 +39,81 @@ public class WeakCache<T> {
 	 * @return The cached value.
 	 */
 	public T cache(T value) {
-		if(value != null) {
-			synchronized(cache) {
-				WeakReference<T> ref = cache.get(value);
-				if(ref != null) {
-					T cachedValue = ref.get();
-					if(cachedValue != null)
-						return cachedValue;
-				}
-				cache.put(value, new WeakReference<>(value));
-			}
-		}
-		return value;
+		if(value == null)
+			return null;
+
+		expungeStaleEntries();
+		Entry<T> entry = cache.get(new Lookup(value));
+		if(entry != null) {
+			T cachedValue = entry.get();
+			if(cachedValue != null)
+				return cachedValue;
+		}
+
+		Entry<T> newEntry = new Entry<>(value, staleEntries);
+		for(;;) {
+			entry = cache.putIfAbsent(newEntry, newEntry);
+			if(entry == null)
+				return value;
+			T cachedValue = entry.get();
+			if(cachedValue != null)
+				return cachedValue;
+			cache.remove(entry, entry);
+		}
+	}
+
+	private void expungeStaleEntries() {
+		Reference<? extends T> ref;
+		while((ref = staleEntries.poll()) != null)
+			cache.remove(ref, ref);
+	}
+
+	/**
+	 * An entry is equal to another entry with an equal value. Once the value has been collected, the entry is
+	 * only equal to itself.
+	 */
+	private static final class Entry<T> extends WeakReference<T> {
+		private final int hash;
+
+		Entry(T value, ReferenceQueue<T> queue) {
+			super(value, queue);
+			hash = value.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(o == this)
+				return true;
+			if(!(o instanceof Entry))
+				return false;
+			T value = get();
+			return value != null && value.equals(((Entry<?>)o).get());
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * Key used when looking up a value so that no weak reference needs to be created for a cache hit.
+	 */
+	private static final class Lookup {
+		private final Object value;
+
+		Lookup(Object value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Entry && value.equals(((Entry<?>)o).get());
+		}
+
+		@Override
+		public int hashCode() {
+			return value.hashCode();
+		}
 	}
 }
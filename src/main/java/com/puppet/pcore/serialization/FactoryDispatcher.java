@@ -17,4 +17,17 @@ public interface FactoryDispatcher<C> {
 	C createInstance(Type type, List<Object> args);
 
 	C createInstance(Type type, Object... args);
+
+	/**
+	 * Creates an instance from arguments that are known to be valid, such as arguments read from a
+	 * stream produced by a trusted {@link Serializer}. The constructor is selected based on the number
+	 * and shape of the given arguments. Signatures are checked only when more than one constructor
+	 * accepts that shape. The selection is cached per argument classes so that subsequent arguments
+	 * with the same classes are passed on to that constructor without further checks.
+	 *
+	 * @param type the type of the created instance
+	 * @param args the arguments to pass to the constructor
+	 * @return the created instance
+	 */
+	C createTrustedInstance(Type type, List<Object> args);
 }
@@ -0,0 +1,64 @@
+package com.puppet.pcore.serialization;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An instance capable of deserializing objects from a framed stream, i.e. a stream where each
+ * top-level object is written as a length-prefixed frame with its own tabulation. Frames
+ * can be read in sequence, skipped, or read at random positions.
+ */
+public interface FramedDeserializer {
+	/**
+	 * Returns the offsets of all frames in the stream. The offsets are obtained from the trailing
+	 * index when present. Otherwise they are found by scanning the frame headers. Like all offsets
+	 * used by this interface, they are positions in the channel, so the first frame is at the
+	 * position that the channel had when this deserializer was created.
+	 *
+	 * @return the offsets of all frames in the stream
+	 * @throws IOException propagated from the underlying channel
+	 */
+	List<Long> frameOffsets() throws IOException;
+
+	/**
+	 * @return <code>true</code> if there is a frame at the current position
+	 * @throws IOException propagated from the underlying channel
+	 */
+	boolean hasNext() throws IOException;
+
+	/**
+	 * @return the offset of the frame that will be read next
+	 */
+	long position();
+
+	/**
+	 * Read the object in the frame at the current position and advance to the next frame.
+	 * @return the object that was read
+	 * @throws IOException propagated from the underlying channel or reader
+	 */
+	Object read() throws IOException;
+
+	/**
+	 * Read the objects in the frames at the given offsets. The frames are decoded in parallel when the
+	 * deserializer was created with the {@link SerializationFactory#PARALLEL} option. The current
+	 * position is not changed.
+	 *
+	 * @param offsets offsets of the frames to read
+	 * @return the objects that were read, in the same order as the offsets
+	 * @throws IOException propagated from the underlying channel or reader
+	 */
+	List<Object> readAll(List<Long> offsets) throws IOException;
+
+	/**
+	 * Position this deserializer at the frame that starts at the given offset.
+	 * @param offset the offset of a frame
+	 * @throws IOException propagated from the underlying channel
+	 */
+	void seek(long offset) throws IOException;
+
+	/**
+	 * Skip the frame at the current position without decoding it.
+	 * @throws IOException propagated from the underlying channel
+	 */
+	void skip() throws IOException;
+}
@@ -5,6 +5,7 @@ import com.puppet.pcore.Pcore;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.util.Map;
 
 /**
@@ -16,8 +17,40 @@ public interface SerializationFactory {
 
 	String MSGPACK = "MessagePack";
 
+	/**
+	 * Option that declares that the input stream was produced by a trusted {@link Serializer}. Objects
+	 * read from such a stream are created without validating their attribute values.
+	 */
+	String TRUSTED = "trusted";
+
+	/**
+	 * Output option that, when set to a positive integer, causes top-level Lists and Hashes with more
+	 * elements than the given number to be divided into chunks. Each chunk is serialized separately
+	 * with its own tabulation.
+	 */
+	String CHUNK_SIZE = "chunkSize";
+
+	/**
+	 * Option that enables parallel serialization or deserialization of chunks.
+	 */
+	String PARALLEL = "parallel";
+
+	/**
+	 * Output option for framed streams. When <code>true</code>, an index of all frame offsets is written
+	 * at the end of the stream.
+	 */
+	String FRAME_INDEX = "frameIndex";
+
 	Deserializer forInput(Pcore pcore, InputStream in) throws IOException;
 
+	/**
+	 * Returns a deserializer that reads from the given stream using the given options. Recognized
+	 * options are {@link #TRUSTED} and {@link #PARALLEL}.
+	 *
+	 * @return A deserializer for the given stream
+	 */
+	Deserializer forInput(Pcore pcore, Map<String,Object> options, InputStream in) throws IOException;
+
 	/**
 	 * Returns a deserializer that can be initialize with input data that has already been
 	 * parsed by another parser into a list of values. This highly specialized deserializer
@@ -29,4 +62,22 @@ public interface SerializationFactory {
 	Deserializer forInputChunks(Pcore pcore);
 
 	Serializer forOutput(Pcore pcore, Map<String,Object> options, OutputStream out) throws IOException;
+
+	/**
+	 * Returns a deserializer for a stream written by a serializer obtained from {@link #forFramedOutput}.
+	 * The stream starts at the current position of the channel and ends at its end. Recognized options are
+	 * {@link #TRUSTED} and {@link #PARALLEL}.
+	 *
+	 * @return A deserializer that can read, skip, or seek frames in the given channel
+	 */
+	FramedDeserializer forFramedInput(Pcore pcore, Map<String,Object> options, SeekableByteChannel in) throws IOException;
+
+	/**
+	 * Returns a serializer that writes each value as a length-prefixed frame with its own tabulation. The
+	 * options are passed on to the serializer of each frame. In addition, the {@link #FRAME_INDEX} option
+	 * is recognized.
+	 *
+	 * @return A serializer that writes framed values
+	 */
+	Serializer forFramedOutput(Pcore pcore, Map<String,Object> options, OutputStream out) throws IOException;
 }
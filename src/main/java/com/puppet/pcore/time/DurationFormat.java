@@ -1,5 +1,7 @@
 package com.puppet.pcore.time;
 
+import com.puppet.pcore.impl.BoundedCache;
+
 import java.time.Duration;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -47,7 +49,6 @@ public class DurationFormat {
 
 	static abstract class ValueSegment extends Segment {
 		final int defaultWidth;
-		final String format;
 		final char padChar;
 		final int width;
 		boolean useTotal;
@@ -57,7 +58,6 @@ public class DurationFormat {
 			this.padChar = padChar;
 			this.width = width;
 			this.defaultWidth = defaultWidth;
-			this.format = createFormat();
 		}
 
 		@Override
@@ -84,17 +84,21 @@ public class DurationFormat {
 			}
 		}
 
+		// Right justified and padded with padChar to the width, or to the default width if no width is given
 		void appendValue(StringBuilder bld, long n) {
-			bld.append(String.format(format, n));
-		}
-
-		String createFormat() {
-			if(padChar == 0)
-				return "%d";
-			StringBuilder bld = new StringBuilder("%");
-			if(padChar != ' ')
-				bld.append(padChar);
-			return bld.append(width > 0 ? width : defaultWidth).append('d').toString();
+			if(padChar == 0) {
+				bld.append(n);
+				return;
+			}
+			int pad = (width > 0 ? width : defaultWidth) - digitCount(n);
+			if(padChar == '0' && n < 0) {
+				bld.append('-');
+				appendPadding(bld, '0', pad);
+				bld.append(Long.toString(n), 1, digitCount(n));
+				return;
+			}
+			appendPadding(bld, padChar, pad);
+			bld.append(n);
 		}
 
 		@Override
@@ -171,8 +175,6 @@ public class DurationFormat {
 	// formatting.
 	// Applicable after a decimal point, and hence to the %L and %N formats.
 	static abstract class FragmentSegment extends ValueSegment {
-		static final Pattern DROP_TRAILING_ZEROES = Pattern.compile("\\A([0-9]+?)0*\\z");
-
 		FragmentSegment(char padChar, int width, int defaultWidth) {
 			super(padChar, width, defaultWidth);
 		}
@@ -184,18 +186,16 @@ public class DurationFormat {
 			return result;
 		}
 
+		// Left justified and padded with spaces to the width, or to the default width if no width is given. Trailing
+		// zeroes are dropped unless zero padding was requested
 		@Override
 		void appendValue(StringBuilder bld, long n) {
 			if(!(useTotal || padChar == '0'))
-				n = Long.parseLong(DROP_TRAILING_ZEROES.matcher(Long.toString(n)).replaceFirst("$1"));
-			super.appendValue(bld, n);
-		}
-
-		@Override
-		String createFormat() {
-			return padChar == 0
-					? "%d"
-					: "%-" + (width > 0 ? width : defaultWidth) + 'd';
+				while(n != 0 && n % 10 == 0)
+					n /= 10;
+			bld.append(n);
+			if(padChar != 0)
+				appendPadding(bld, ' ', (width > 0 ? width : defaultWidth) - digitCount(n));
 		}
 
 		@Override
@@ -268,10 +268,15 @@ public class DurationFormat {
 		private static final int STATE_LITERAL = 0; // expects literal or '%'
 		private static final int STATE_PAD = 1; // expects pad, width, or format character
 		private static final int STATE_WIDTH = 2; // expects width, or format character
-		private final Map<String,DurationFormat> formats = new HashMap<>();
+		private final BoundedCache<String,DurationFormat> formats = new BoundedCache<>(256);
 
 		DurationFormat parseFormat(String format) {
-			return formats.computeIfAbsent(format, this::internalParse);
+			DurationFormat df = formats.get(format);
+			if(df == null) {
+				df = internalParse(format);
+				formats.put(format, df);
+			}
+			return df;
 		}
 
 		private void appendLiteral(List<Segment> bld, char c) {
@@ -402,7 +407,7 @@ public class DurationFormat {
 	private static final long NSECS_PER_DAY = NSECS_PER_HOUR * 24;
 	private final String format;
 	private final Segment[] segments;
-	private Pattern pattern;
+	private volatile Pattern pattern;
 
 	private DurationFormat(String format, Segment[] segments) {
 		this.format = format;
@@ -414,7 +419,19 @@ public class DurationFormat {
 	}
 
 	public static String defaultFormat(Duration timeSpan) {
-		return format(timeSpan, DEFAULT_FORMATS.get(0));
+		StringBuilder bld = new StringBuilder(24);
+		defaultFormat(timeSpan, bld);
+		return bld.toString();
+	}
+
+	/**
+	 * Appends the given duration formatted using the first of the {@link #DEFAULT_FORMATS}.
+	 *
+	 * @param timeSpan the duration to format
+	 * @param bld the builder to append to
+	 */
+	public static void defaultFormat(Duration timeSpan, StringBuilder bld) {
+		FormatParser.singleton.parseFormat(DEFAULT_FORMATS.get(0)).formatTo(timeSpan, bld);
 	}
 
 	public static Duration parse(String timeSpan, List<String> formats) {
@@ -465,7 +482,13 @@ public class DurationFormat {
 		return d;
 	}
 
-	private void formatTo(Duration duration, StringBuilder bld) {
+	/**
+	 * Appends the given duration formatted using this format.
+	 *
+	 * @param duration the duration to format
+	 * @param bld the builder to append to
+	 */
+	public void formatTo(Duration duration, StringBuilder bld) {
 		if(duration.isNegative()) {
 			bld.append('-');
 			duration = duration.negated();
@@ -474,6 +497,19 @@ public class DurationFormat {
 			segment.appendTo(bld, duration);
 	}
 
+	private static void appendPadding(StringBuilder bld, char padChar, int count) {
+		for(; count > 0; --count)
+			bld.append(padChar);
+	}
+
+	// The number of characters produced by Long.toString(n)
+	private static int digitCount(long n) {
+		int count = n < 0 ? 2 : 1;
+		while((n /= 10) != 0)
+			++count;
+		return count;
+	}
+
 	private Pattern getPattern() {
 		if(pattern == null) {
 			StringBuilder bld = new StringBuilder();
@@ -1,5 +1,7 @@
 package com.puppet.pcore.time;
 
+import com.puppet.pcore.impl.BoundedCache;
+
 import java.time.*;
 import java.time.format.*;
 import java.time.temporal.ChronoField;
@@ -16,9 +18,29 @@ import static java.util.Arrays.asList;
 public class InstantFormat {
 	private enum Padding {Default, Zero, Blank, None}
 
+	private static final BoundedCache<String,DateTimeFormatter> formatterCache = new BoundedCache<>(256);
+
+	private static final long SECONDS_PER_DAY = 86400;
+	private static final long DAYS_PER_ERA = 146097;
+	private static final long DAYS_0000_TO_1970 = 719468;
+	private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000 };
+
 	public static final InstantFormat SINGLETON = new InstantFormat();
 	// TODO: Instant parsing and formatting
 	public static final List<DateTimeFormatter> DEFAULTS_WO_TZ;
+
+	// Indexes in DEFAULTS
+	private static final int DATE_TIME_NANOS_ZONE = 0;
+	private static final int DATE_TIME_ZONE = 1;
+	private static final int DATE_SP_TIME_NANOS_ZONE = 2;
+	private static final int DATE_SP_TIME_ZONE = 3;
+	private static final int DATE_ZONE = 4;
+	private static final int DATE_TIME_NANOS = 5;
+	private static final int DATE_TIME = 6;
+	private static final int DATE_SP_TIME_NANOS = 7;
+	private static final int DATE_SP_TIME = 8;
+	private static final int DATE = 9;
+
 	public static final List<DateTimeFormatter> DEFAULTS;
 	private static final Map<Long,String> ucMonthOfYear = new HashMap<>();
 	private static final Map<Long,String> ucShortMonthOfYear = new HashMap<>();
@@ -91,14 +113,65 @@ public class InstantFormat {
 		DEFAULTS = Collections.unmodifiableList(allDefaults);
 	}
 
-	private final Map<String,DateTimeFormatter> formatterCache = new HashMap<>();
-
 	public static String defaultFormat(Instant instant) {
-		return SINGLETON.format(instant, DEFAULTS.get(0), ZoneOffset.UTC);
+		StringBuilder bld = new StringBuilder(32);
+		defaultFormat(instant, bld);
+		return bld.toString();
+	}
+
+	/**
+	 * Appends the given instant formatted using the first of the {@link #DEFAULTS} in UTC. Years 0 to 9999 are
+	 * formatted directly without creating intermediate date and time objects.
+	 *
+	 * @param instant the instant to format
+	 * @param bld the builder to append to
+	 */
+	public static void defaultFormat(Instant instant, StringBuilder bld) {
+		long seconds = instant.getEpochSecond();
+		long epochDay = Math.floorDiv(seconds, SECONDS_PER_DAY);
+		int secondOfDay = (int)Math.floorMod(seconds, SECONDS_PER_DAY);
+
+		// Civil date from the epoch day, see http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+		long z = epochDay + DAYS_0000_TO_1970;
+		long era = Math.floorDiv(z, DAYS_PER_ERA);
+		long doe = z - era * DAYS_PER_ERA;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		int day = (int)(doy - (153 * mp + 2) / 5 + 1);
+		int month = (int)(mp < 10 ? mp + 3 : mp - 9);
+		long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+		if(year < 0 || year > 9999) {
+			bld.append(SINGLETON.format(instant, DEFAULTS.get(0), ZoneOffset.UTC));
+			return;
+		}
+
+		appendDigits(bld, (int)year, 4);
+		bld.append('-');
+		appendDigits(bld, month, 2);
+		bld.append('-');
+		appendDigits(bld, day, 2);
+		bld.append('T');
+		appendDigits(bld, secondOfDay / 3600, 2);
+		bld.append(':');
+		appendDigits(bld, secondOfDay / 60 % 60, 2);
+		bld.append(':');
+		appendDigits(bld, secondOfDay % 60, 2);
+		bld.append('.');
+
+		// Fraction without trailing zeroes but with at least one digit
+		int nanos = instant.getNano();
+		int digits = 9;
+		while(digits > 1 && nanos % 10 == 0) {
+			nanos /= 10;
+			--digits;
+		}
+		appendDigits(bld, nanos, digits);
+		bld.append(" Z");
 	}
 
 	public String format(Instant instant, String pattern, ZoneId zoneId) {
-		return format(instant, new InstantFormat().createDateTimeFormatter(pattern), zoneId);
+		return format(instant, createDateTimeFormatter(pattern), zoneId);
 	}
 
 	public String format(Instant instant, DateTimeFormatter formatter, ZoneId zoneId) {
@@ -106,8 +179,27 @@ public class InstantFormat {
 		return formatter.format(ldt);
 	}
 
+	/**
+	 * Parses the given timestamp using the default formats. The format that matches the shape of the timestamp is
+	 * tried first. The remaining formats are only tried when that format fails.
+	 *
+	 * @param timestamp the timestamp to parse
+	 * @return the parsed instant
+	 */
 	public Instant parse(String timestamp) {
+		Instant instant = parseCanonical(timestamp);
+		if(instant != null)
+			return instant;
+
+		int likely = defaultFormatIndex(timestamp);
+		try {
+			return parse(timestamp, DEFAULTS.get(likely));
+		} catch(IllegalArgumentException ignored) {
+		}
+
 		for(DateTimeFormatter format : DEFAULTS) {
+			if(format == DEFAULTS.get(likely))
+				continue;
 			try {
 				return parse(timestamp, format);
 			} catch(IllegalArgumentException ignored) {
@@ -126,7 +218,7 @@ public class InstantFormat {
 		ZoneId zone = timezone == null ? null : ZoneId.of(timezone);
 		for(String format : formats) {
 			try {
-				return parse(timestamp, new InstantFormat().createDateTimeFormatter(format), zone);
+				return parse(timestamp, createDateTimeFormatter(format), zone);
 			} catch(IllegalArgumentException ignored) {
 			}
 		}
@@ -181,7 +273,130 @@ public class InstantFormat {
 	}
 
 	public Instant parse(String instant, String pattern, String timezone) {
-		return parse(instant, new InstantFormat().createDateTimeFormatter(pattern), timezone == null ? null : ZoneId.of(timezone));
+		return parse(instant, createDateTimeFormatter(pattern), timezone == null ? null : ZoneId.of(timezone));
+	}
+
+	/**
+	 * Returns the index of the default format that matches the shape of the given timestamp. The shape is
+	 * determined by the separator between date and time, the presence of a fraction, and a trailing zone.
+	 */
+	private static int defaultFormatIndex(String timestamp) {
+		int top = timestamp.length();
+		int sep = -1;
+		for(int idx = 1; idx < top; ++idx) {
+			char c = timestamp.charAt(idx);
+			if(c == 'T' || c == ' ') {
+				sep = idx;
+				break;
+			}
+		}
+		if(sep < 0)
+			return DATE;
+
+		boolean spaceSep = timestamp.charAt(sep) == ' ';
+		if(spaceSep && !(sep + 1 < top && Character.isDigit(timestamp.charAt(sep + 1))))
+			return DATE_ZONE;
+
+		int zoneSep = timestamp.indexOf(' ', sep + 1);
+		int timeEnd = zoneSep < 0 ? top : zoneSep;
+		int dot = timestamp.indexOf('.', sep + 1);
+		boolean nanos = dot > 0 && dot < timeEnd;
+		if(zoneSep < 0) {
+			if(spaceSep)
+				return nanos ? DATE_SP_TIME_NANOS : DATE_SP_TIME;
+			return nanos ? DATE_TIME_NANOS : DATE_TIME;
+		}
+		if(spaceSep)
+			return nanos ? DATE_SP_TIME_NANOS_ZONE : DATE_SP_TIME_ZONE;
+		return nanos ? DATE_TIME_NANOS_ZONE : DATE_TIME_ZONE;
+	}
+
+	private static void appendDigits(StringBuilder bld, int value, int width) {
+		for(int divisor = POWERS_OF_TEN[width - 1]; divisor > 0; divisor /= 10)
+			bld.append((char)('0' + value / divisor % 10));
+	}
+
+	private static int digits(String s, int start, int count) {
+		int value = 0;
+		for(int idx = start; idx < start + count; ++idx) {
+			char c = s.charAt(idx);
+			if(c < '0' || c > '9')
+				return -1;
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	// Days since 1970-01-01, see http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+	private static long epochDay(int year, int month, int day) {
+		if(month <= 2)
+			--year;
+		long era = Math.floorDiv(year, 400);
+		long yoe = year - era * 400;
+		long doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * DAYS_PER_ERA + doe - DAYS_0000_TO_1970;
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		switch(month) {
+		case 2:
+			return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	/**
+	 * Parses a timestamp in the form produced by {@link #defaultFormat(Instant)}, i.e.
+	 * <code>YYYY-MM-DD[(T| )hh:mm:ss[.fraction]][ Z]</code>, without creating intermediate date and time
+	 * objects. Returns <code>null</code> for any other form, and for values that the general parser would
+	 * resolve leniently, such as day 30 of February or hour 24.
+	 */
+	private static Instant parseCanonical(String s) {
+		int top = s.length();
+		if(top < 10 || s.charAt(4) != '-' || s.charAt(7) != '-')
+			return null;
+
+		int year = digits(s, 0, 4);
+		int month = digits(s, 5, 2);
+		int day = digits(s, 8, 2);
+		if(year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month))
+			return null;
+
+		int idx = 10;
+		int secondOfDay = 0;
+		int nanos = 0;
+		if(top >= 19 && (s.charAt(10) == 'T' || s.charAt(10) == ' ') && s.charAt(13) == ':' && s.charAt(16) == ':') {
+			int hour = digits(s, 11, 2);
+			int minute = digits(s, 14, 2);
+			int second = digits(s, 17, 2);
+			if(hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59)
+				return null;
+			secondOfDay = hour * 3600 + minute * 60 + second;
+			idx = 19;
+			if(idx < top && s.charAt(idx) == '.') {
+				int start = ++idx;
+				while(idx < top && idx - start < 9) {
+					char c = s.charAt(idx);
+					if(c < '0' || c > '9')
+						break;
+					nanos = nanos * 10 + (c - '0');
+					++idx;
+				}
+				if(idx == start)
+					return null;
+				nanos *= POWERS_OF_TEN[9 - (idx - start)];
+			}
+		}
+		if(idx < top && !(idx + 2 == top && s.charAt(idx) == ' ' && s.charAt(idx + 1) == 'Z'))
+			return null;
+		return Instant.ofEpochSecond(epochDay(year, month, day) * SECONDS_PER_DAY + secondOfDay, nanos);
 	}
 
 	private IllegalArgumentException badFormatSpecifier(String format, int start, int end) {
@@ -197,7 +412,7 @@ public class InstantFormat {
 	 * @param formatString The strftime style format string
 	 * @return the formatter instance.
 	 */
-	private synchronized DateTimeFormatter createDateTimeFormatter(String formatString) {
+	private DateTimeFormatter createDateTimeFormatter(String formatString) {
 		DateTimeFormatter formatter = formatterCache.get(formatString);
 		if(formatter != null)
 			return formatter;
@@ -12,6 +12,7 @@ import java.util.Arrays;
 import static com.puppet.pcore.impl.Helpers.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -36,6 +37,51 @@ public class BinaryTest {
 		assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, new Binary(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), 3).toByteArray()));
 	}
 
+	@Test
+	@DisplayName("can wrap a partial byte[] without copying")
+	void wrapPartialByteArray() {
+		byte[] bytes = {0, 1, 2, 3, 4};
+		Binary binary = Binary.wrap(bytes, 1, 3);
+		assertEquals(3, binary.length());
+		assertEquals(new Binary(new byte[] {1, 2, 3}), binary);
+		assertEquals(new Binary(new byte[] {1, 2, 3}).hashCode(), binary.hashCode());
+		bytes[2] = 9;
+		assertEquals(asList((byte)1, (byte)9, (byte)3), binary.asList());
+		assertThrows(IndexOutOfBoundsException.class, () -> Binary.wrap(bytes, 3, 3));
+	}
+
+	@Test
+	@DisplayName("can be sliced and copied")
+	void sliceAndCopy() throws IOException {
+		byte[] bytes = {0, 1, 2, 3, 4};
+		Binary slice = Binary.wrap(bytes).slice(1, 3).slice(1, 2);
+		assertEquals("AgM=", slice.toString());
+		assertEquals("\u0002\u0003", slice.toUTF8String());
+		assertEquals(2, slice.getBuffer().get());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		slice.writeTo(out);
+		assertTrue(Arrays.equals(new byte[] {2, 3}, out.toByteArray()));
+
+		Binary copy = slice.copy();
+		bytes[2] = 9;
+		assertEquals("AgM=", copy.toString());
+		assertEquals("CQM=", slice.toString());
+		assertThrows(IndexOutOfBoundsException.class, () -> slice.writeTo(out, 1, 2));
+	}
+
+	@Test
+	@DisplayName("copy of a wrapped byte[] does not share it")
+	void copyOfWrapped() {
+		byte[] bytes = {1, 2, 3};
+		Binary copy = Binary.wrap(bytes).copy();
+		bytes[0] = 9;
+		assertEquals(new Binary(new byte[] {1, 2, 3}), copy);
+
+		Binary owned = new Binary(new byte[] {1, 2, 3});
+		assertSame(owned, owned.copy());
+	}
+
 	@Test
 	@DisplayName("can be created from base64 when padding is missing")
 	void createFromBase64() {
@@ -48,6 +94,19 @@ public class BinaryTest {
 		assertEquals("YmluYXI=", Binary.fromBase64Strict("YmluYXI=").toString());
 	}
 
+	@Test
+	@DisplayName("can be decoded from strict base64 written in chunks")
+	void strictBase64Decoder() {
+		Binary.StrictBase64Decoder decoder = new Binary.StrictBase64Decoder(8);
+		decoder.write("Ym", 0, 2);
+		decoder.write("luYXI=".toCharArray(), 0, 6);
+		assertEquals(Binary.fromUTF8("binar"), decoder.toBinary());
+
+		Binary.StrictBase64Decoder truncated = new Binary.StrictBase64Decoder(8);
+		truncated.write("Ymlu", 0, 4);
+		assertThrows(IllegalArgumentException.class, truncated::toBinary);
+	}
+
 	@Test
 	@DisplayName("can be created from an Base64 using URL safe encoding")
 	void failCreateFromBase64Strict() {
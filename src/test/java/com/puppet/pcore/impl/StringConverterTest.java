@@ -10,6 +10,9 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 
@@ -149,6 +152,72 @@ public class StringConverterTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("format plan")
+	class FormatPlanTest {
+		@Test
+		@DisplayName("is cached by specification")
+		public void cached() {
+			Map<AnyType,Object> formats = singletonMap(integerType(), "%x");
+			assertSame(converter.compile("%5s"), converter.compile("%5s"));
+			assertSame(converter.compile(formats), converter.compile(singletonMap(integerType(), "%x")));
+			assertSame(converter.compile(Default.SINGLETON), converter.compile(null));
+		}
+
+		@Test
+		@DisplayName("converts the same way as convert")
+		public void convertsLikeConvert() {
+			StringConverter.FormatPlan plan = converter.compile(singletonMap(integerType(), "%x"));
+			assertEquals("a", plan.convert(10));
+			assertEquals(converter.convert(asList(10, "b", 1.5), singletonMap(integerType(), "%x")), plan.convert(asList(10, "b", 1.5)));
+			assertEquals("  abc", converter.compile("%5s").convert("abc"));
+			assertEquals("ab   ", converter.compile("%-5.2s").convert("abc"));
+		}
+
+		@ParameterizedTest(name = "formats {0} like String.format(\"%g\")")
+		@ValueSource(doubles = { 18.0, 123.456789, -0.000123456, 0.00001234, 999999.5, 1234567.0, 0.0, 1e-300, Double.NaN })
+		public void generalFormat(double value) {
+			assertEquals(format("%g", value), converter.convert(value, "%p"));
+		}
+	}
+
+	@Nested
+	@DisplayName("when converting to an Appendable")
+	class AppendableTest {
+		@Test
+		@DisplayName("appends the same result as convert")
+		public void appendsLikeConvert() throws IOException {
+			Object value = asMap("a", asList(1, "x\ny", asMap("b", 2.5)), "c", asList(asList(1, 2), 3));
+			Map<AnyType,Object> formats = asMap(arrayType(), asMap("format", "%#a", "separator", ","), hashType(), "%#h");
+			StringWriter out = new StringWriter();
+			out.write("> ");
+			converter.convert(value, formats, out);
+			assertEquals("> " + converter.convert(value, formats), out.toString());
+		}
+
+		@Test
+		@DisplayName("propagates IOException from the output")
+		public void propagatesIOException() {
+			Appendable out = new Writer() {
+				@Override
+				public void write(char[] cbuf, int off, int len) throws IOException {
+					throw new IOException("closed");
+				}
+
+				@Override
+				public void flush() {
+				}
+
+				@Override
+				public void close() {
+				}
+			};
+			assertThrows(IOException.class, () -> converter.convert(asList(1, "a"), Default.SINGLETON, out));
+			Throwable ex = assertThrows(IOException.class, () -> converter.compile("%p").convert(asMap("a", 1), out));
+			assertEquals("closed", ex.getMessage());
+		}
+	}
+
 	@Nested
 	@DisplayName("when converting array")
 	class ConvertArrayTest {
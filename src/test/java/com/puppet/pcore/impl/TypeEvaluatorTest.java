@@ -1,7 +1,9 @@
 package com.puppet.pcore.impl;
 
 import com.puppet.pcore.Pcore;
+import com.puppet.pcore.Type;
 import com.puppet.pcore.TypeAssertionException;
+import com.puppet.pcore.TypeEvaluator;
 import com.puppet.pcore.TypeResolverException;
 import com.puppet.pcore.impl.types.AnyType;
 import com.puppet.pcore.impl.types.PcoreTestBase;
@@ -18,6 +20,7 @@ import static com.puppet.pcore.impl.types.TypeFactory.*;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SuppressWarnings("unused")
@@ -39,6 +42,23 @@ public class TypeEvaluatorTest extends PcoreTestBase {
 			assertEquals(typeReferenceType("NoSuchType"), resolveType("NoSuchType"));
 		}
 
+		@Test
+		@DisplayName("by name caches resolved types")
+		public void resolveByNameCaches() {
+			TypeEvaluator te = typeEvaluator();
+			Type t = te.resolveTypeByName("Pcore::ObjectType");
+			assertSame(t, te.resolveTypeByName("Pcore::ObjectType"));
+		}
+
+		@Test
+		@DisplayName("by name does not cache unresolved references")
+		public void resolveByNameUnresolved() {
+			TypeEvaluator te = typeEvaluator();
+			assertEquals(typeReferenceType("MyType"), te.resolveTypeByName("MyType"));
+			te.declareType("MyType", "Object[attributes => { a => Integer }]");
+			assertEquals(resolveType("MyType"), te.resolveTypeByName("MyType"));
+		}
+
 		@Nested
 		@DisplayName("and failWhenUnresovled = true")
 		class FailWhenUnresovled {
@@ -9,6 +9,7 @@ import com.puppet.pcore.semver.Version;
 import com.puppet.pcore.semver.VersionRange;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringWriter;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
@@ -21,8 +22,7 @@ import static com.puppet.pcore.impl.types.TypeFactory.*;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TypeFormatterTest extends PcoreTestBase {
 
@@ -623,6 +623,30 @@ public class TypeFormatterTest extends PcoreTestBase {
 		assertEquals("'1.2.3-alpha'", format(Version.create("1.2.3-alpha")));
 	}
 
+	@Test
+	public void toStringIsCached() {
+		AnyType t = arrayType(stringType());
+		assertSame(t.toString(), t.toString());
+	}
+
+	@Test
+	public void truncatedAtMaxLength() {
+		StringWriter out = new StringWriter();
+		TypeFormatter tf = new TypeFormatter(out, -1, 0, false, false, 20);
+		tf.format(structType(structElement("first", stringType()), structElement("second", integerType())));
+		assertEquals("Struct[{'first' => S...", out.toString());
+		assertTrue(tf.isTruncated());
+	}
+
+	@Test
+	public void notTruncatedWithinMaxLength() {
+		StringWriter out = new StringWriter();
+		TypeFormatter tf = new TypeFormatter(out, -1, 0, false, false, 23);
+		tf.format(variantType(integerType(), floatType()));
+		assertEquals("Variant[Integer, Float]", out.toString());
+		assertFalse(tf.isTruncated());
+	}
+
 	private String format(Object object) {
 		StringBuilder out = new StringBuilder();
 		new TypeFormatter(out).format(object);
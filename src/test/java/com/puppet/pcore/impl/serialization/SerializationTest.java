@@ -1,12 +1,17 @@
 package com.puppet.pcore.impl.serialization;
 
 import com.puppet.pcore.*;
+import com.puppet.pcore.impl.DynamicObjectImpl;
+import com.puppet.pcore.impl.serialization.json.JsonSerializationFactory;
 import com.puppet.pcore.impl.types.AnyType;
+import com.puppet.pcore.impl.types.ObjectType;
 import com.puppet.pcore.impl.types.ObjectTypeExtension;
 import com.puppet.pcore.impl.types.PcoreTestBase;
 import com.puppet.pcore.semver.Version;
 import com.puppet.pcore.semver.VersionRange;
 import com.puppet.pcore.serialization.Deserializer;
+import com.puppet.pcore.serialization.FramedDeserializer;
+import com.puppet.pcore.serialization.Reader;
 import com.puppet.pcore.serialization.SerializationFactory;
 import com.puppet.pcore.serialization.Serializer;
 import org.junit.jupiter.api.*;
@@ -14,17 +19,27 @@ import org.junit.jupiter.api.*;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static com.puppet.pcore.impl.Helpers.asMap;
 import static com.puppet.pcore.impl.types.TypeFactory.infer;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings("unused")
@@ -57,6 +72,43 @@ public class SerializationTest extends PcoreTestBase {
 				return SerializationTest.this.assertWriteAndRead(value, SerializationFactory.JSON);
 			}
 		}
+
+		@Test
+		@DisplayName("writes a Binary as a base64 string")
+		void binaryAsBase64() throws IOException {
+			byte[] bytes = new byte[4 * 1024 * 1024 + 1];
+			new Random(1).nextBytes(bytes);
+			Binary binary = Binary.wrap(bytes, 1, bytes.length - 1);
+			String json = new String(write(binary, SerializationFactory.JSON), StandardCharsets.ISO_8859_1);
+			assertTrue(json.contains('"' + binary.toString() + '"'));
+			assertEquals(binary, writeAndRead(binary, SerializationFactory.JSON));
+		}
+
+		@Test
+		@DisplayName("reads values as the document is parsed")
+		void streamingRead() throws IOException {
+			byte[] truncated = "[1,[56,\"AQID\"],[56,\"AQ".getBytes(StandardCharsets.US_ASCII);
+			Reader reader = new JsonSerializationFactory().readerOn(new ByteArrayInputStream(truncated));
+			assertEquals(1L, reader.read());
+			assertEquals(new Binary(new byte[] { 1, 2, 3 }), reader.read());
+			assertThrows(IOException.class, reader::read);
+		}
+
+		@Test
+		@DisplayName("reads base64 with the same rules as Binary.fromBase64Strict")
+		void strictBase64() throws IOException {
+			assertEquals(Binary.fromUTF8("ABCABC"), readBase64("QUJDQUJD"));
+			for(String invalid : asList("QUJD QUJD", "QUJD\\nQUJD", "QUJDQUJ", "QU=D", "QUJ#")) {
+				IllegalArgumentException expected = assertThrows(IllegalArgumentException.class, () -> Binary.fromBase64Strict(invalid.replace("\\n", "\n")));
+				IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> readBase64(invalid));
+				assertEquals(expected.getMessage(), ex.getMessage());
+			}
+		}
+
+		private Object readBase64(String jsonString) throws IOException {
+			byte[] json = ("[[56,\"" + jsonString + "\"]]").getBytes(StandardCharsets.US_ASCII);
+			return new JsonSerializationFactory().readerOn(new ByteArrayInputStream(json)).read();
+		}
 	}
 
 	@Nested
@@ -88,25 +140,219 @@ public class SerializationTest extends PcoreTestBase {
 		}
 	}
 
+	@Nested
+	@DisplayName("using MsgPack from a trusted stream")
+	class TrustedMsgPackSerializationTest {
+		@Nested
+		@DisplayName("can write and read an object of type")
+		class RuntimeTypesImpl extends RuntimeTypes {
+			@Override
+			public Object writeAndRead(Object value) throws IOException {
+				return SerializationTest.this.writeAndRead(value, SerializationFactory.MSGPACK, TRUSTED);
+			}
+		}
+
+		@Nested
+		@DisplayName("Pcore Types")
+		class PackPcoreTypesImpl extends PcoreTypes {
+			@Override
+			public void assertWriteAndRead(String typeString) throws IOException {
+				SerializationTest.this.setPcore(pcore());
+				SerializationTest.this.assertWriteAndRead(typeString, SerializationFactory.MSGPACK, TRUSTED);
+			}
+
+			@Override
+			public Object assertWriteAndRead(Object value) throws IOException {
+				SerializationTest.this.setPcore(pcore());
+				return SerializationTest.this.assertWriteAndRead(value, SerializationFactory.MSGPACK, TRUSTED);
+			}
+		}
+
+		@Test
+		@DisplayName("does not validate attribute values")
+		void noValidation() throws IOException {
+			TypeEvaluator te = typeEvaluator();
+			te.declareType("Small", "Object[attributes => { a => Integer[0,5] }]");
+			ObjectType small = (ObjectType)te.resolveType("Small");
+			DynamicObject invalid = DynamicObjectImpl.trusted(small, 12L);
+			assertThrows(TypeAssertionException.class, () -> writeAndRead(invalid, SerializationFactory.MSGPACK));
+
+			DynamicObject v = (DynamicObject)writeAndRead(invalid, SerializationFactory.MSGPACK, TRUSTED);
+			assertEquals(12L, v.get("a"));
+		}
+	}
+
+	@Nested
+	@DisplayName("chunked")
+	class ChunkedSerializationTest {
+		private final Map<String,Object> chunked = singletonMap(SerializationFactory.CHUNK_SIZE, 10);
+		private final Map<String,Object> parallel = singletonMap(SerializationFactory.PARALLEL, true);
+
+		@Test
+		@DisplayName("large arrays")
+		void rwArray() throws IOException {
+			List<Object> value = new ArrayList<>();
+			for(int i = 0; i < 95; ++i)
+				value.add(asList("v" + (i % 7), (long)i, Version.create(1, i, 0)));
+			for(String factoryName : asList(SerializationFactory.MSGPACK, SerializationFactory.JSON)) {
+				assertEquals(value, read(write(value, factoryName, chunked), factoryName, emptyMap()));
+				assertEquals(value, read(write(value, factoryName, chunked), factoryName, parallel));
+			}
+		}
+
+		@Test
+		@DisplayName("large hashes")
+		void rwHash() throws IOException {
+			Map<String,Object> value = new LinkedHashMap<>();
+			for(int i = 0; i < 95; ++i)
+				value.put("k" + i, asMap("a", "v" + (i % 7), "b", (long)i));
+			for(String factoryName : asList(SerializationFactory.MSGPACK, SerializationFactory.JSON)) {
+				Object result = read(write(value, factoryName, chunked), factoryName, parallel);
+				assertEquals(value, result);
+				assertEquals(new ArrayList<>(value.keySet()), new ArrayList<>(((Map<?,?>)result).keySet()));
+			}
+		}
+
+		@Test
+		@DisplayName("small values are not chunked")
+		void rwSmall() throws IOException {
+			List<Object> value = asList("a", "b", "c");
+			assertArrayEquals(write(value, SerializationFactory.MSGPACK), write(value, SerializationFactory.MSGPACK, chunked));
+		}
+	}
+
+	@Nested
+	@DisplayName("framed")
+	class FramedSerializationTest {
+		private final List<Object> values = asList("a", asList("a", "b"), asMap("x", 1L), Version.create(1, 0, 0), "a");
+
+		@Test
+		@DisplayName("reads frames in sequence")
+		void readSequence() throws IOException {
+			for(String factoryName : asList(SerializationFactory.MSGPACK, SerializationFactory.JSON)) {
+				FramedDeserializer reader = framedReader(framedWrite(values, factoryName, emptyMap()), factoryName, emptyMap());
+				List<Object> result = new ArrayList<>();
+				while(reader.hasNext())
+					result.add(reader.read());
+				assertEquals(values, result);
+			}
+		}
+
+		@Test
+		@DisplayName("skips and seeks frames")
+		void skipAndSeek() throws IOException {
+			FramedDeserializer reader = framedReader(framedWrite(values, SerializationFactory.MSGPACK, emptyMap()), SerializationFactory.MSGPACK, emptyMap());
+			reader.skip();
+			reader.skip();
+			assertEquals(asMap("x", 1L), reader.read());
+			List<Long> offsets = reader.frameOffsets();
+			assertEquals(values.size(), offsets.size());
+			reader.seek(offsets.get(1));
+			assertEquals(asList("a", "b"), reader.read());
+			reader.seek(offsets.get(4));
+			assertEquals("a", reader.read());
+			assertFalse(reader.hasNext());
+		}
+
+		@Test
+		@DisplayName("uses a trailing index")
+		void index() throws IOException {
+			Map<String,Object> options = singletonMap(SerializationFactory.FRAME_INDEX, true);
+			byte[] indexed = framedWrite(values, SerializationFactory.MSGPACK, options);
+			FramedDeserializer reader = framedReader(indexed, SerializationFactory.MSGPACK, singletonMap(SerializationFactory.PARALLEL, true));
+			List<Long> offsets = reader.frameOffsets();
+			assertEquals(framedReader(framedWrite(values, SerializationFactory.MSGPACK, emptyMap()), SerializationFactory.MSGPACK, emptyMap()).frameOffsets(), offsets);
+			assertEquals(values, reader.readAll(offsets));
+			assertEquals(asList(Version.create(1, 0, 0), "a"), reader.readAll(offsets.subList(3, 5)));
+		}
+
+		@Test
+		@DisplayName("reads a stream that starts after a prefix")
+		void prefixed() throws IOException {
+			for(boolean indexed : new boolean[] { false, true }) {
+				byte[] framed = framedWrite(values, SerializationFactory.MSGPACK, singletonMap(SerializationFactory.FRAME_INDEX, indexed));
+				byte[] prefixed = new byte[framed.length + 3];
+				System.arraycopy(framed, 0, prefixed, 3, framed.length);
+				Path file = Files.createTempFile("framed", ".bin");
+				file.toFile().deleteOnExit();
+				Files.write(file, prefixed);
+				SeekableByteChannel channel = Files.newByteChannel(file);
+				channel.position(3);
+				FramedDeserializer reader = pcore().serializationFactory(SerializationFactory.MSGPACK).forFramedInput(pcore(), emptyMap(), channel);
+
+				List<Long> offsets = reader.frameOffsets();
+				assertEquals(3L, (long)offsets.get(0));
+				assertEquals(reader.position(), (long)offsets.get(0));
+				assertEquals("a", reader.read());
+				assertEquals(offsets.get(1), reader.position());
+				assertEquals(asList(Version.create(1, 0, 0), "a"), reader.readAll(offsets.subList(3, 5)));
+				assertEquals(offsets.get(1), reader.position());
+				assertEquals(asList("a", "b"), reader.read());
+			}
+		}
+
+		private byte[] framedWrite(List<Object> values, String factoryName, Map<String,Object> options) throws IOException {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Serializer writer = pcore().serializationFactory(factoryName).forFramedOutput(pcore(), options, out);
+			for(Object value : values)
+				writer.write(value);
+			writer.finish();
+			return out.toByteArray();
+		}
+
+		private FramedDeserializer framedReader(byte[] bytes, String factoryName, Map<String,Object> options) throws IOException {
+			Path file = Files.createTempFile("framed", ".bin");
+			file.toFile().deleteOnExit();
+			Files.write(file, bytes);
+			return pcore().serializationFactory(factoryName).forFramedInput(pcore(), options, Files.newByteChannel(file));
+		}
+	}
+
+	private static final Map<String,Object> TRUSTED = singletonMap(SerializationFactory.TRUSTED, true);
+
 	void assertWriteAndRead(String typeString, String factoryName) throws IOException {
+		assertWriteAndRead(typeString, factoryName, emptyMap());
+	}
+
+	void assertWriteAndRead(String typeString, String factoryName, Map<String,Object> inputOptions) throws IOException {
 		TypeEvaluator te = typeEvaluator();
 		Type type = ((AnyType)te.resolveType(typeString)).resolve(pcore());
-		assertEquals(type, ((AnyType)writeAndRead(type, factoryName)).resolve(pcore()));
+		assertEquals(type, ((AnyType)writeAndRead(type, factoryName, inputOptions)).resolve(pcore()));
 	}
 
 	Object assertWriteAndRead(Object value, String factoryName) throws IOException {
-		assertEquals(value, writeAndRead(value, factoryName));
+		return assertWriteAndRead(value, factoryName, emptyMap());
+	}
+
+	Object assertWriteAndRead(Object value, String factoryName, Map<String,Object> inputOptions) throws IOException {
+		assertEquals(value, writeAndRead(value, factoryName, inputOptions));
 		return value;
 	}
 
 	Object writeAndRead(Object value, String factoryName) throws IOException {
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		return writeAndRead(value, factoryName, emptyMap());
+	}
+
+	Object writeAndRead(Object value, String factoryName, Map<String,Object> inputOptions) throws IOException {
+		return read(write(value, factoryName), factoryName, inputOptions);
+	}
+
+	Object read(byte[] bytes, String factoryName, Map<String,Object> inputOptions) throws IOException {
 		SerializationFactory factory = pcore().serializationFactory(factoryName);
-		Serializer writer = factory.forOutput(pcore(), emptyMap(), out);
+		Deserializer reader = factory.forInput(pcore(), inputOptions, new ByteArrayInputStream(bytes));
+		return reader.read();
+	}
+
+	byte[] write(Object value, String factoryName) throws IOException {
+		return write(value, factoryName, emptyMap());
+	}
+
+	byte[] write(Object value, String factoryName, Map<String,Object> outputOptions) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Serializer writer = pcore().serializationFactory(factoryName).forOutput(pcore(), outputOptions, out);
 		writer.write(value);
 		writer.finish();
-		Deserializer reader = factory.forInput(pcore(), new ByteArrayInputStream(out.toByteArray()));
-		return reader.read();
+		return out.toByteArray();
 	}
 }
 
@@ -119,6 +365,18 @@ abstract class RuntimeTypes {
 		assertEquals(binary, writeAndRead(binary));
 	}
 
+	@Test
+	@DisplayName("Binary slices of varying size")
+	void rwBinarySlice() throws IOException {
+		byte[] bytes = new byte[70000];
+		for(int idx = 0; idx < bytes.length; ++idx)
+			bytes[idx] = (byte)idx;
+		for(int len : new int[] { 0, 200, 300, 69990 }) {
+			Binary binary = Binary.wrap(bytes, 5, len);
+			assertEquals(binary, writeAndRead(binary));
+		}
+	}
+
 	@Test
 	@DisplayName("Boolean")
 	void rwBoolean() throws IOException {
@@ -395,6 +653,16 @@ abstract class PcoreTypes extends PcoreTestBase {
 		assertEquals(((ObjectTypeExtension)t2).parameters, singletonMap("p1", "hello"));
 	}
 
+	@Test
+	@DisplayName("List of instances of an Object type")
+	void rwObjectInstances() throws IOException {
+		TypeEvaluator te = typeEvaluator();
+		te.declareType("TheType", "Object[attributes => { title => String, kind => Enum[file,package], line => Integer }]");
+
+		Type type = te.resolveType("TheType");
+		assertWriteAndRead(asList(type.newInstance("a", "file", 1), type.newInstance("b", "package", 2)));
+	}
+
 	@Test
 	@DisplayName("Optional[Boolean]")
 	void rwOptionalType() throws IOException {
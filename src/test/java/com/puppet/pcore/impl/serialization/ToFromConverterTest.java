@@ -1,16 +1,23 @@
 package com.puppet.pcore.impl.serialization;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.puppet.pcore.*;
 import com.puppet.pcore.impl.types.AnyType;
 import com.puppet.pcore.impl.types.PcoreTestBase;
 import com.puppet.pcore.semver.Version;
 import com.puppet.pcore.semver.VersionRange;
+import com.puppet.pcore.serialization.SerializationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -21,6 +28,8 @@ import static com.puppet.pcore.impl.Helpers.asMap;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings("unused")
 @DisplayName("The ToDataConverter/FromDataConverter")
@@ -147,6 +156,119 @@ public class ToFromConverterTest extends PcoreTestBase {
 		}
 	}
 
+	@Nested
+	@DisplayName("References")
+	class References {
+		@Test
+		@DisplayName("Data without local references")
+		void rwWithoutRefs() throws IOException {
+			Map<Object, Object> hash = asMap(1L, "one", "two", asList(2L, 2.5));
+			List<Object> value = asList(hash, new Sensitive("secret"), Default.SINGLETON, Version.create(1, 2, 3));
+			Object result = writeAndRead(value);
+			assertEquals(value.subList(2, 4), ((List<?>)result).subList(2, 4));
+			assertEquals(hash, ((List<?>)result).get(0));
+		}
+
+		@Test
+		@DisplayName("Data with local references")
+		void rwWithRefs() throws IOException {
+			List<Object> shared = asList("a", "b");
+			Map<String, Object> value = asMap("x", shared, "y", asMap("z", shared));
+			Object data = ToDataConverter.convert(value, asMap());
+			assertTrue(data.toString().contains(Converter.PCORE_LOCAL_REF_SYMBOL));
+			assertEquals(value, writeAndRead(value));
+		}
+
+		@Test
+		@DisplayName("Local reference paths")
+		void refPaths() throws IOException {
+			List<Object> shared = asList("a", "b");
+			List<Object> value = asList(asMap("x", asList(1L, shared)), shared, shared);
+			Object ref = asMap(Converter.PCORE_TYPE_KEY, Converter.PCORE_LOCAL_REF_SYMBOL, Converter.PCORE_VALUE_KEY, "$[0]['x'][1]");
+			assertEquals(asList(asMap("x", asList(1L, shared)), ref, ref), ToDataConverter.convert(value, asMap()));
+		}
+	}
+
+	@Nested
+	@DisplayName("Streaming")
+	class Streaming {
+		private final List<Object> shared = asList("a", "b");
+		private final Object value = asList(
+				asMap("x", shared, "y", asMap("z", shared)),
+				asMap(1L, "one", Version.create(1, 0, 0), 2.5),
+				new Sensitive(Default.SINGLETON),
+				new Symbol("sym"),
+				Duration.ofSeconds(3));
+
+		@Test
+		@DisplayName("to JsonGenerator")
+		void toJsonGenerator() throws IOException {
+			ObjectMapper mapper = new ObjectMapper();
+			StringWriter out = new StringWriter();
+			try(JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+				ToDataConverter.convert(value, asMap(), generator);
+			}
+			assertEquals(mapper.writeValueAsString(ToDataConverter.convert(value, asMap())), out.toString());
+		}
+
+		@Test
+		@DisplayName("to MessagePacker")
+		void toMessagePacker() throws IOException {
+			MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+			ToDataConverter.convert(value, asMap(), packer);
+			packer.close();
+			String json = MessagePack.newDefaultUnpacker(packer.toByteArray()).unpackValue().toJson();
+			ObjectMapper mapper = new ObjectMapper();
+			assertEquals(mapper.readTree(mapper.writeValueAsString(ToDataConverter.convert(value, asMap()))), mapper.readTree(json));
+		}
+
+		@Test
+		@DisplayName("merges keys that convert to the same string")
+		void collidingKeys() throws IOException {
+			Map<String,Object> options = asMap("richData", false);
+			Object hash = asMap(1L, "first", "2", "two", "1", "second");
+			ObjectMapper mapper = new ObjectMapper();
+			String expected = mapper.writeValueAsString(ToDataConverter.convert(hash, options));
+			assertEquals("{\"1\":\"second\",\"2\":\"two\"}", expected);
+
+			StringWriter out = new StringWriter();
+			try(JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+				ToDataConverter.convert(hash, options, generator);
+			}
+			assertEquals(expected, out.toString());
+
+			MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+			ToDataConverter.convert(hash, options, packer);
+			packer.close();
+			assertEquals(expected, MessagePack.newDefaultUnpacker(packer.toByteArray()).unpackValue().toJson());
+		}
+
+		@Test
+		@DisplayName("writes big numbers without losing precision")
+		void bigNumbers() throws IOException {
+			BigInteger unsigned = BigInteger.ONE.shiftLeft(63).add(BigInteger.valueOf(5));
+			Object numbers = asList(new BigInteger("123456789012345678901234567890"), new BigDecimal("1.25"), unsigned);
+			ObjectMapper mapper = new ObjectMapper();
+			StringWriter out = new StringWriter();
+			try(JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+				ToDataConverter.convert(numbers, asMap(), generator);
+			}
+			assertEquals(mapper.writeValueAsString(ToDataConverter.convert(numbers, asMap())), out.toString());
+			assertEquals("[123456789012345678901234567890,1.25,9223372036854775813]", out.toString());
+
+			MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+			ToDataConverter.convert(singletonList(unsigned), asMap(), packer);
+			packer.close();
+			String json = MessagePack.newDefaultUnpacker(packer.toByteArray()).unpackValue().toJson();
+			assertEquals(mapper.writeValueAsString(ToDataConverter.convert(singletonList(unsigned), asMap())), json);
+
+			assertThrows(SerializationException.class,
+					() -> ToDataConverter.convert(new BigDecimal("1.25"), asMap(), MessagePack.newDefaultBufferPacker()));
+			assertThrows(SerializationException.class,
+					() -> ToDataConverter.convert(new BigInteger("123456789012345678901234567890"), asMap(), MessagePack.newDefaultBufferPacker()));
+		}
+	}
+
 	@Nested
 	@DisplayName("Pcore types")
 	class PcoreTypes {
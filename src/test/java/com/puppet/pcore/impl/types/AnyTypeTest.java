@@ -1,16 +1,24 @@
 package com.puppet.pcore.impl.types;
 
+import com.puppet.pcore.TypeAssertionException;
+import com.puppet.pcore.ValidationResult;
 import com.puppet.pcore.impl.TypeEvaluatorImpl;
+import com.puppet.pcore.impl.TypeFormatter;
+import com.puppet.pcore.impl.TypeMismatchDescriber;
 import org.junit.jupiter.api.*;
 
 import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import static com.puppet.pcore.impl.Helpers.all;
+import static com.puppet.pcore.impl.Helpers.asList;
+import static com.puppet.pcore.impl.Helpers.asMap;
+import static com.puppet.pcore.impl.Helpers.map;
 import static com.puppet.pcore.impl.types.TypeFactory.*;
 import static com.puppet.pcore.test.TestHelper.dynamicMapTest;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SuppressWarnings("unused")
 @DisplayName("Any Type")
@@ -46,6 +54,126 @@ public class AnyTypeTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("describes instance mismatches such that")
+	class InstanceMismatch {
+		private final TypeMismatchDescriber describer = TypeMismatchDescriber.SINGLETON;
+
+		@Test
+		@DisplayName("the description is the same as for the inferred type")
+		public void sameAsInferred() {
+			AnyType struct = structType(structElement("a", integerType()), structElement("b", arrayType(stringType(), integerType(1, 2))));
+			List<Object> values = asList(
+					asMap("a", "x", "b", asList("y")),
+					asMap("a", 1, "b", asList("y", 2)),
+					asMap("a", 1, "b", asList()),
+					asMap("a", 1, "c", 2),
+					asMap(3, 4));
+			for(Object value : values)
+				assertEquals(describer.describeMismatch(struct, inferSet(value)), describer.describeInstanceMismatch(struct, value));
+
+			AnyType hash = hashType(stringType(), tupleType(asList(integerType(), stringType())));
+			Object value = asMap("a", asList(1, "x"), "b", asList(1, 2), "c", asList(1));
+			assertEquals(describer.describeMismatch(hash, inferSet(value)), describer.describeInstanceMismatch(hash, value));
+		}
+
+		@Test
+		@DisplayName("only the failing entries are reported")
+		public void failingEntry() {
+			Map<String,Object> value = new HashMap<>();
+			for(int idx = 0; idx < 50000; ++idx)
+				value.put("k" + idx, idx);
+			value.put("k123", "bad");
+			assertEquals("entry 'k123' expects an Integer value, got String",
+					describer.describeInstanceMismatch(hashType(stringType(), integerType()), value));
+		}
+
+		@Test
+		@DisplayName("the number of reported mismatches is capped")
+		public void capped() {
+			List<Object> value = asList("a", "b", "c", "d", "e");
+			assertEquals(3, describer.describeInstanceMismatch(arrayType(integerType()), value, 3).split("\n").length);
+		}
+
+		@Test
+		@DisplayName("the assertion message is computed when read")
+		public void lazyMessage() {
+			TypeAssertionException ex = assertThrows(TypeAssertionException.class,
+					() -> integerType().assertInstanceOf("x", () -> "value"));
+			assertEquals("value expects an Integer value, got String", ex.getMessage());
+		}
+
+		@Test
+		@DisplayName("the failing entries are found when the assertion fails")
+		public void eagerTraversal() {
+			Map<String,Object> value = new HashMap<>();
+			value.put("a", 1);
+			value.put("b", "bad");
+			TypeAssertionException ex = assertThrows(TypeAssertionException.class,
+					() -> hashType(stringType(), integerType()).assertInstanceOf(value, () -> "value"));
+			value.clear();
+			value.put("c", "other");
+			assertEquals("value entry 'b' expects an Integer value, got String", ex.getMessage());
+		}
+
+		@Test
+		@DisplayName("huge types are truncated")
+		public void truncatedType() {
+			List<AnyType> ranges = new ArrayList<>();
+			for(int idx = 0; idx < 10000; ++idx)
+				ranges.add(integerType(2 * idx, 2 * idx));
+			TypeAssertionException ex = assertThrows(TypeAssertionException.class,
+					() -> variantType(ranges).assertInstanceOf(1L, () -> "value"));
+			String msg = ex.getMessage();
+			assertTrue(msg.startsWith("value expects a value of type Integer[0, 0] or Variant[Integer[2, 2], "), msg);
+			assertTrue(msg.endsWith(TypeFormatter.TRUNCATION_MARK + ", got Integer[1, 1]"), msg);
+			assertTrue(msg.length() < 2 * TypeMismatchDescriber.MAX_TYPE_STRING_LENGTH);
+		}
+	}
+
+	@Nested
+	@DisplayName("validates values such that")
+	class Validation {
+		private final AnyType server = structType(
+				structElement("host", stringType()),
+				structElement("port", integerType(1, 65535)),
+				structElement(optionalType(stringType("tags")), arrayType(stringType())));
+
+		@Test
+		@DisplayName("a valid value has no failures")
+		public void valid() {
+			ValidationResult result = arrayType(server).validate(asList(asMap("host", "a", "port", 80, "tags", asList("x"))));
+			assertTrue(result.isValid());
+			assertTrue(result.failures().isEmpty());
+		}
+
+		@Test
+		@DisplayName("all failures are reported with their paths")
+		public void allFailures() {
+			ValidationResult result = arrayType(server).validate(asList(
+					asMap("host", "a", "port", 80),
+					asMap("host", 1, "port", 0, "tags", asList("x", 2)),
+					asMap("port", 80, "extra", true)));
+			assertFalse(result.isValid());
+			assertEquals(
+					asList("$[1]['host']", "$[1]['port']", "$[1]['tags'][1]", "$[2]['host']", "$[2]['extra']"),
+					map(result.failures(), ValidationResult.Failure::path));
+			ValidationResult.Failure f = result.failures().get(0);
+			assertEquals(stringType(), f.expected());
+			assertEquals("index '1' entry 'host' expects a String value, got Integer", f.message());
+			assertEquals("index '2' unrecognized key 'extra'", result.failures().get(4).message());
+		}
+
+		@Test
+		@DisplayName("size failures report the container")
+		public void sizeFailure() {
+			ValidationResult.Failure f = structType(structElement("a", arrayType(integerType(), integerType(0, 1)))).validate(asMap("a", asList(1, 2))).failures().get(0);
+			assertEquals("$['a']", f.path());
+			assertEquals(integerType(0, 1), f.expected());
+			assertEquals(integerType(2, 2), f.actual());
+		}
+	}
+
 	@Test
 	@DisplayName("all except TypeAlias types generalize to themselves")
 	public void generalize() {
@@ -5,6 +5,7 @@ import com.puppet.pcore.impl.GivenArgumentsAccessor;
 import com.puppet.pcore.impl.types.ObjectType.Attribute;
 import com.puppet.pcore.parser.ParseException;
 import com.puppet.pcore.semver.VersionRange;
+import com.puppet.pcore.serialization.FactoryDispatcher;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,8 @@ import java.time.Duration;
 import java.time.Instant;
 
 import static com.puppet.pcore.test.TestHelper.assertIncludes;
+import static com.puppet.pcore.impl.ConstructorImpl.constructor;
+import static com.puppet.pcore.impl.FactoryDispatcherImpl.dispatcher;
 import static com.puppet.pcore.impl.Helpers.asList;
 import static com.puppet.pcore.impl.Helpers.asMap;
 import static com.puppet.pcore.impl.types.TypeFactory.*;
@@ -839,6 +842,48 @@ public class ObjectTypeTest extends PcoreTestBase {
 				assertEquals(8L, a.get("b"));
 			}
 
+			@Test
+			@DisplayName("can be created from trusted arguments")
+			public void trustedArguments() {
+				declareObject(
+						"attributes => {\n" +
+								"  a => Integer[0,5],\n" +
+								"  b => { type => Integer, value => 8 }\n" +
+								"}");
+				ObjectType t = resolveObject();
+				FactoryDispatcher<DynamicObject> fd = t.factoryDispatcher();
+				DynamicObject a = fd.createTrustedInstance(t, asList(3L, 8L));
+				assertEquals(3L, a.get("a"));
+
+				DynamicObject b = fd.createTrustedInstance(t, asList(5L, 8L));
+				assertEquals(5L, b.get("a"));
+
+				DynamicObject c = fd.createTrustedInstance(t, asList(asMap("a", 4L)));
+				assertEquals(4L, c.get("a"));
+				assertEquals(8L, c.get("b"));
+			}
+
+			@Test
+			@DisplayName("selects constructor from trusted argument values when the shape is ambiguous")
+			public void trustedArgumentsAmbiguousShape() {
+				FactoryDispatcher<String> fd = dispatcher(
+						constructor(args -> "small", integerType(0, 5)),
+						constructor(args -> "large", integerType(6, 10)));
+				assertEquals("small", fd.createTrustedInstance(integerType(), asList(3L)));
+				assertEquals("large", fd.createTrustedInstance(integerType(), asList(8L)));
+				assertEquals("small", fd.createTrustedInstance(integerType(), asList(4L)));
+			}
+
+			@Test
+			@DisplayName("raises exception when no constructor accepts the shape of trusted arguments")
+			public void trustedArgumentsInvalid() {
+				declareObject("attributes => { a => Integer[0,5] }");
+				ObjectType t = resolveObject();
+				FactoryDispatcher<DynamicObject> fd = t.factoryDispatcher();
+				Throwable ex = assertThrows(TypeAssertionException.class, () -> fd.createTrustedInstance(t, asList(1L, 2L)));
+				assertMatches("The factory that creates instances of type 'TestObj'", ex.getMessage());
+			}
+
 			@Test
 			@DisplayName("raises exception on attempts to access undefined attributes")
 			public void noSuchAttribute() {
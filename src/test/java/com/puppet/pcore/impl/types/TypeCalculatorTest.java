@@ -3,6 +3,11 @@ package com.puppet.pcore.impl.types;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.puppet.pcore.impl.Helpers.asList;
+import static com.puppet.pcore.impl.Helpers.asMap;
 import static com.puppet.pcore.impl.types.TypeFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -14,4 +19,28 @@ public class TypeCalculatorTest {
 	void inferRuntime() {
 		assertEquals(runtimeType("java", getClass().getName()), infer(this));
 	}
+
+	@Test
+	@DisplayName("infers the common type of all elements")
+	void inferCommon() {
+		assertEquals(arrayType(integerType(1, 3), integerType(3, 3)), infer(asList(1, 3, 2)));
+		assertEquals(arrayType(anyType(), integerType(3, 3)), infer(asList(1, this, "a")));
+		assertEquals("Hash[Enum['a', 'b'], ScalarData, 2, 2]", infer(asMap("a", 1, "b", "x")).toString());
+	}
+
+	@Test
+	@DisplayName("infers the type of large collections from samples")
+	void inferSampledLarge() {
+		List<Integer> values = new ArrayList<>();
+		for(int idx = 0; idx < 100000; ++idx)
+			values.add(idx);
+		AnyType t = inferSampled(values);
+		assertTrue(t instanceof ArrayType);
+		assertEquals(integerType(100000, 100000), ((ArrayType)t).size);
+		IntegerType et = (IntegerType)((ArrayType)t).type;
+		assertEquals(0, et.min);
+		assertTrue(et.max > 99000);
+		assertTrue(infer(values).isAssignable(t));
+		assertEquals(infer(values.subList(0, 10)), inferSampled(values.subList(0, 10), 5));
+	}
 }
@@ -194,6 +194,41 @@ public class VersionRangeTest extends PcoreTestBase {
 		assertEquals(VersionRange.EMPTY_RANGE, VersionRange.create(">1.2.0 <1.1.0"));
 	}
 
+	@Test
+	public void cachedByString() {
+		assertSame(VersionRange.create(">=1.2.0 <1.3.0"), VersionRange.create(">=1.2.0 <1.3.0"));
+	}
+
+	@Test
+	public void includesInDisjointRanges() {
+		VersionRange range = VersionRange.create("~3.0.1 || ^0.1.0 || 5.0.0 || >=1.2.0-rc <1.3.0");
+		assertTrue(range.includes(Version.create("0.1.5")));
+		assertTrue(range.includes(Version.create("1.2.0-rc.1")));
+		assertTrue(range.includes(Version.create("1.2.9")));
+		assertTrue(range.includes(Version.create("3.0.7")));
+		assertTrue(range.includes(Version.create("5.0.0")));
+		assertFalse(range.includes(Version.create("0.0.9")));
+		assertFalse(range.includes(Version.create("0.2.0")));
+		assertFalse(range.includes(Version.create("1.2.5-rc")));
+		assertFalse(range.includes(Version.create("1.3.0")));
+		assertFalse(range.includes(Version.create("3.0.0")));
+		assertFalse(range.includes(Version.create("5.0.0-0")));
+		assertFalse(range.includes(Version.create("5.0.1")));
+	}
+
+	@Test
+	public void whitespaceAfterOperator() {
+		assertEquals(">=1.2.0 <2.0.0", VersionRange.create(">= 1.2.0 <\t2.0.0").toString());
+		assertEquals(">=1.2.0", VersionRange.create(">=v1.2.0").toString());
+		assertEquals(">=1.2.0 <2.0.0", VersionRange.create(">=1.2.0  <2.0.0 || ").toNormalizedString());
+	}
+
+	@Test
+	public void invalidSimpleRange() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> VersionRange.create(">=1.2.0 <2.0.0.1"));
+		assertEquals("'<2.0.0.1' is not a valid version range in range '>=1.2.0 <2.0.0.1'", e.getMessage());
+	}
+
 	@Test
 	public void findBestMatch() {
 		VersionRange range = VersionRange.create(">1.2.0 <=1.3.0");
@@ -0,0 +1,75 @@
+package com.puppet.pcore.semver.tests;
+
+import com.puppet.pcore.semver.Version;
+import com.puppet.pcore.semver.VersionRange;
+import com.puppet.pcore.semver.VersionSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.puppet.pcore.impl.Helpers.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for VersionSet.
+ */
+public class VersionSetTest {
+	private static final String[] RANGES = {
+			"*", "1.x", "1.2.x", ">1.2.0", ">=1.2.0-rc", "<1.3.0", "<=2.0.0-alpha", "~1.2.3-alpha", "^0.2.3", "^1.2",
+			"1.0.0 - 2.0.0", ">=1.0.0 <1.2.0 || >=2.0.0-alpha <3.0.0", "~0.2 || 1.2.3 || >=3.0.0-beta", "<0.0.0", "1.2.3-rc.1",
+			">9.0.0"
+	};
+
+	private static List<Version> versions() {
+		List<Version> versions = new ArrayList<>();
+		for(int major = 0; major < 4; ++major)
+			for(int minor = 0; minor < 4; ++minor)
+				for(int patch = 0; patch < 4; ++patch) {
+					versions.add(Version.create(major, minor, patch));
+					versions.add(Version.create(major, minor, patch, "alpha"));
+					versions.add(Version.create(major, minor, patch, "rc.1"));
+				}
+		return versions;
+	}
+
+	@Test
+	@DisplayName("bestMatch finds the same version as findBestMatch")
+	public void bestMatchSameAsFindBestMatch() {
+		List<Version> versions = versions();
+		VersionSet set = VersionSet.create(versions);
+		for(String rangeStr : RANGES) {
+			VersionRange range = VersionRange.create(rangeStr);
+			assertEquals(range.findBestMatch(versions), set.bestMatch(range), rangeStr);
+			assertEquals(range.findBestMatch(versions) != null, set.intersects(range), rangeStr);
+		}
+	}
+
+	@Test
+	@DisplayName("allMatches finds all included versions in order")
+	public void allMatchesSameAsIncludes() {
+		List<Version> versions = versions();
+		VersionSet set = VersionSet.create(versions);
+		for(String rangeStr : RANGES) {
+			VersionRange range = VersionRange.create(rangeStr);
+			List<Version> expected = new ArrayList<>();
+			for(Version v : set)
+				if(range.includes(v))
+					expected.add(v);
+			assertEquals(expected, set.allMatches(range), rangeStr);
+		}
+	}
+
+	@Test
+	@DisplayName("create removes duplicates and sorts on precedence")
+	public void createSortsAndRemovesDuplicates() {
+		VersionSet set = VersionSet.create(asList(Version.create("2.0.0"), Version.create("1.0.0-rc"), Version.create("1.0.0"),
+				Version.create("2.0.0")));
+		assertEquals(3, set.size());
+		List<Version> sorted = new ArrayList<>();
+		set.forEach(sorted::add);
+		assertEquals(asList(Version.create("1.0.0-rc"), Version.create("1.0.0"), Version.create("2.0.0")), sorted);
+		assertNull(VersionSet.EMPTY.bestMatch(VersionRange.ALL_INCLUSIVE));
+	}
+}
@@ -143,6 +143,35 @@ public class VersionTest {
 		assertTrue(Version.isValid("1.2.3-00v-alpha"));
 	}
 
+	@Test
+	@DisplayName("fromStringOrNull returns null for malformed versions")
+	public void fromStringOrNullMalformed() {
+		for(String bad : new String[] { "", "1", "1.2", "1.2.", "1.2.3.", "01.2.3", "1.2.3-", "1.2.3+", "1.2.3-a..b", "1.2.3-a.",
+				"1.2.3+a=b", "1.2.3-99999999999", "v1.2.3", "1.2.3 " })
+			assertNull(Version.fromStringOrNull(bad), bad);
+	}
+
+	@Test
+	@DisplayName("create reports the full string when the version is malformed")
+	public void createErrorMessage() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Version.create("1.2.3-a..b"));
+		assertEquals("The string '1.2.3-a..b' does not represent a valid semantic version", e.getMessage());
+	}
+
+	@Test
+	@DisplayName("parsed and constructed versions are equal")
+	public void parsedEqualsConstructed() {
+		assertEquals(Version.create(10, 20, 30, "rc.1.x-y", "b.007"), Version.create("10.20.30-rc.1.x-y+b.007"));
+		assertEquals(Version.create(1, 2, 3, null, "exp"), Version.create("1.2.3+exp"));
+	}
+
+	@Test
+	@DisplayName("illegal pre-release characters are reported for the tag")
+	public void illegalPreReleaseCharacters() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Version.create(1, 2, 3, "a=b", null));
+		assertEquals("Illegal characters in pre-release", e.getMessage());
+	}
+
 	@Test
 	public void preReleaseMagnitude() {
 		try {
@@ -157,6 +186,26 @@ public class VersionTest {
 		}
 	}
 
+	@Test
+	@DisplayName("large version numbers compare correctly with small ones")
+	public void largeNumbersMagnitude() {
+		assertTrue(Version.create(2, 0, 0).compareTo(Version.create(3000000, 0, 0)) < 0);
+		assertTrue(Version.create(2, 3000000, 0).compareTo(Version.create(3, 0, 0)) < 0);
+		assertTrue(Version.create(3000000, 0, 0).compareTo(Version.MAX) < 0);
+		assertTrue(Version.create(0, 0, 2097152, "a").compareTo(Version.create(0, 0, 2097152)) < 0);
+		assertEquals(0, Version.create(3000000, 1, 2).compareTo(Version.create("3000000.1.2+build")));
+	}
+
+	@Test
+	@DisplayName("pre-release and build are kept in string form")
+	public void preReleaseAndBuildRoundTrip() {
+		Version v = Version.create("1.0.0-rc.10.x-1+exp.sha.5114f85");
+		assertEquals("rc.10.x-1", v.getPreRelease());
+		assertEquals("exp.sha.5114f85", v.getBuild());
+		assertEquals("1.0.0-rc.10.x-1+exp.sha.5114f85", v.toString());
+		assertEquals("0.0.0-", Version.MIN.toString());
+	}
+
 	@Test
 	public void tooFewDigits() {
 		try {
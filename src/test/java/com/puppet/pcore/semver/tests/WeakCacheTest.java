@@ -0,0 +1,54 @@
+package com.puppet.pcore.semver.tests;
+
+import com.puppet.pcore.semver.WeakCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WeakCache.
+ */
+public class WeakCacheTest {
+	@Test
+	@DisplayName("equal values are cached as the same instance")
+	public void sameInstance() {
+		WeakCache<String> cache = new WeakCache<>();
+		String first = new String("abc");
+		assertSame(first, cache.cache(first));
+		assertSame(first, cache.cache(new String("abc")));
+		assertNull(cache.cache(null));
+	}
+
+	@Test
+	@DisplayName("concurrent callers get the same instance")
+	public void concurrentCallers() throws Exception {
+		WeakCache<String> cache = new WeakCache<>();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String[]>> results = new ArrayList<>();
+			for(int t = 0; t < 4; ++t)
+				results.add(executor.submit(() -> {
+					String[] values = new String[1000];
+					for(int idx = 0; idx < values.length; ++idx)
+						values[idx] = cache.cache(new String("v" + idx));
+					return values;
+				}));
+
+			String[] expected = results.get(0).get();
+			for(Future<String[]> result : results) {
+				String[] values = result.get();
+				for(int idx = 0; idx < values.length; ++idx)
+					assertSame(expected[idx], values[idx]);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class DurationFormatTest {
@@ -21,6 +22,19 @@ public class DurationFormatTest {
 		assertThrows(IllegalArgumentException.class, () -> parse("123", "%N"));
 	}
 
+	@Test
+	public void formatToAppendsToGivenBuilder() {
+		StringBuilder bld = new StringBuilder("took ");
+		DurationFormat.defaultFormat(complex, bld);
+		assertEquals("took 1-07:10:11.123456789", bld.toString());
+		assertEquals("0-00:00:02.5", DurationFormat.defaultFormat(Duration.ofMillis(2500)));
+	}
+
+	@Test
+	public void formatsAreCached() {
+		assertSame(DurationFormat.FormatParser.singleton.parseFormat("%H:%M"), DurationFormat.FormatParser.singleton.parseFormat("%H:%M"));
+	}
+
 	@Test
 	public void fromString() {
 		assertEquals(simple, parse("1-03:10:11", "%D-%H:%M:%S"));
@@ -101,6 +115,11 @@ public class DurationFormatTest {
 		assertEquals("2.345   ", format(parse("2.345", "%S.%N"), "%-S.%_6N"));
 	}
 
+	@Test
+	public void producesStringWithNegativeTotalZeroPadded() {
+		assertEquals("-0027:10", format(Duration.ofMinutes(-1630), "%4H:%M"));
+	}
+
 	@Test
 	public void producesWithTrailingZeroesFor_0N() {
 		assertEquals("2.345000000", format(parse("2.345", "%S.%N"), "%-S.%0N"));
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.*;
 
 import java.time.Instant;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.*;
 
 import static com.puppet.pcore.test.TestHelper.assertMatches;
@@ -53,7 +54,12 @@ public class InstantFormatTest {
 							entry("2012-10-11T13:15:14.003", "2012-10-11T13:15:14.003Z"),
 							entry("2012-10-11T13:15:14", "2012-10-11T13:15:14Z"),
 							entry("2012-10-11 13:15:14", "2012-10-11T13:15:14Z"),
-							entry("2012-10-11", "2012-10-11T00:00:00Z")
+							entry("2012-10-11", "2012-10-11T00:00:00Z"),
+							entry("2012-10-11T13:15:14.003 +01:00", "2012-10-11T12:15:14.003Z"),
+							entry("2012-10-11T13:15:14 Z", "2012-10-11T13:15:14Z"),
+							entry("2012-10-11 13:15:14.5 -02:00", "2012-10-11T15:15:14.500Z"),
+							entry("2012-10-11 13:15:14 +01:00", "2012-10-11T12:15:14Z"),
+							entry("2012-10-11 +01:00", "2012-10-10T23:00:00Z")
 					),
 					(fmt, result) -> format("'%s' is parsed int '%s' using a default format", fmt, result),
 					(fmt, result) -> assertEquals(Instant.parse(result), parse(fmt))
@@ -118,6 +124,38 @@ public class InstantFormatTest {
 	}
 
 
+	@Nested
+	@DisplayName("when using the canonical form")
+	class CanonicalForm {
+		@Test
+		@DisplayName("formats the same as the first default format")
+		void formatsLikeDefault() {
+			Random rnd = new Random(4711);
+			for(int i = 0; i < 10000; ++i) {
+				Instant instant = Instant.ofEpochSecond(rnd.nextLong() % 300000000000L, i % 3 == 0 ? 0 : rnd.nextInt(1000000000));
+				assertEquals(new InstantFormat().format(instant, InstantFormat.DEFAULTS.get(0), ZoneOffset.UTC), InstantFormat.defaultFormat(instant));
+			}
+		}
+
+		@Test
+		@DisplayName("parses what it formats")
+		void roundTrip() {
+			Random rnd = new Random(4711);
+			for(int i = 0; i < 10000; ++i) {
+				Instant instant = Instant.ofEpochSecond(rnd.nextLong() % 200000000000L, i % 3 == 0 ? 0 : rnd.nextInt(1000000000));
+				assertEquals(instant, new InstantFormat().parse(InstantFormat.defaultFormat(instant)));
+			}
+		}
+
+		@Test
+		@DisplayName("leaves lenient resolution to the general parser")
+		void lenientValues() {
+			assertEquals(Instant.parse("2012-02-29T00:00:00Z"), new InstantFormat().parse("2012-02-30T00:00:00"));
+			assertEquals(Instant.parse("2012-10-12T00:00:00Z"), new InstantFormat().parse("2012-10-11T24:00:00"));
+			assertEquals(Instant.parse("2012-01-05T00:00:00Z"), new InstantFormat().parse("2012-1-5"));
+		}
+	}
+
 	@Nested
 	@DisplayName("when used for formatting")
 	class Formatting {